@@ -1,6 +1,7 @@
 package dev.neuxs.sound_controller;
 
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import dev.neuxs.sound_controller.audio.MusicPrefetcher;
 import dev.neuxs.sound_controller.settings.SettingsManager;
 import dev.neuxs.sound_controller.ui.CRImageButton;
 import finalforeach.cosmicreach.ui.widgets.CRSlider;
@@ -19,6 +20,7 @@ public class Mod {
     public static void init() {
         LOGGER.info("{} v{} Initializing...", MOD_NAME, VERSION);
         SettingsManager.initialize();
+        SettingsManager.whenReady().thenRun(MusicPrefetcher::start);
         LOGGER.info("{} v{} Initialized!", MOD_NAME, VERSION);
     }
 }
@@ -0,0 +1,95 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.AudioListener;
+import dev.neuxs.sound_controller.settings.PlaybackOptions;
+import dev.neuxs.sound_controller.settings.VolumeTable;
+import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.AL11;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Estimates gain with the distance model OpenAL is set to and the attenuation tuningfork gives every new source.
+// Both, like the listener, belong to the main thread, so they are read there and published as one snapshot per frame.
+public class AudibilityCuller {
+    private static final AtomicBoolean samplePending = new AtomicBoolean(false);
+    private static volatile EngineState engineState = null;
+
+    static float estimateGain(int slot, Vector3 position, float volume) {
+        float gain = volume * VolumeTable.get(slot);
+        if (position == null || gain <= 0f) return gain;
+
+        EngineState state = engineState;
+        requestSample(state);
+        // Nothing is culled until the main thread has read what the engine actually applies
+        if (state == null) return gain;
+        return gain * state.distanceGain(position.dst(state.listenerPosition));
+    }
+
+    static boolean isInaudible(float gain, PlaybackOptions options) {
+        return gain < options.getCullThreshold();
+    }
+
+    private static void requestSample(EngineState state) {
+        long frame = Gdx.graphics != null ? Gdx.graphics.getFrameId() : 0L;
+        if (state != null && state.frameId == frame) return;
+        if (Gdx.app != null && samplePending.compareAndSet(false, true)) Gdx.app.postRunnable(AudibilityCuller::sample);
+    }
+
+    private static void sample() {
+        samplePending.set(false);
+        Audio audio = Audio.get();
+        AudioListener listener = audio != null ? audio.getListener() : null;
+        if (listener == null) {
+            engineState = null;
+            return;
+        }
+
+        engineState = new EngineState(Gdx.graphics.getFrameId(), AL10.alGetInteger(AL10.AL_DISTANCE_MODEL),
+                audio.getDefaultMinAttenuationDistance(), audio.getDefaultAttenuationFactor(),
+                audio.getDefaultMaxAttenuationDistance(), listener.getPosition(new Vector3()));
+    }
+
+    private static final class EngineState {
+        private final long frameId;
+        private final int distanceModel;
+        private final float reference;
+        private final float rolloff;
+        private final float maxDistance;
+        private final Vector3 listenerPosition;
+
+        private EngineState(long frameId, int distanceModel, float reference, float rolloff, float maxDistance, Vector3 listenerPosition) {
+            this.frameId = frameId;
+            this.distanceModel = distanceModel;
+            this.reference = Math.max(0.0001f, reference);
+            this.rolloff = Math.max(0f, rolloff);
+            this.maxDistance = Math.max(this.reference, maxDistance);
+            this.listenerPosition = listenerPosition;
+        }
+
+        // The OpenAL 1.1 distance models
+        private float distanceGain(float distance) {
+            float clamped = Math.max(reference, Math.min(distance, maxDistance));
+            return switch (distanceModel) {
+                case AL10.AL_INVERSE_DISTANCE -> inverse(Math.max(distance, reference));
+                case AL10.AL_INVERSE_DISTANCE_CLAMPED -> inverse(clamped);
+                case AL11.AL_LINEAR_DISTANCE -> linear(Math.min(distance, maxDistance));
+                case AL11.AL_LINEAR_DISTANCE_CLAMPED -> linear(clamped);
+                case AL11.AL_EXPONENT_DISTANCE -> (float) Math.pow(Math.max(distance, reference) / reference, -rolloff);
+                case AL11.AL_EXPONENT_DISTANCE_CLAMPED -> (float) Math.pow(clamped / reference, -rolloff);
+                default -> 1f;
+            };
+        }
+
+        private float inverse(float distance) {
+            return reference / (reference + rolloff * (distance - reference));
+        }
+
+        private float linear(float distance) {
+            if (maxDistance <= reference) return 1f;
+            return Math.max(0f, Math.min(1f, 1f - rolloff * (distance - reference) / (maxDistance - reference)));
+        }
+    }
+}
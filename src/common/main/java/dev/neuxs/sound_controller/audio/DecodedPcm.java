@@ -0,0 +1,55 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.AudioStream;
+import de.pottgames.tuningfork.FlacInputStream;
+import de.pottgames.tuningfork.Mp3InputStream;
+import de.pottgames.tuningfork.OggInputStream;
+import de.pottgames.tuningfork.PcmFormat;
+import de.pottgames.tuningfork.SoundBuffer;
+import de.pottgames.tuningfork.WavInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+// Audio decoded to PCM without touching OpenAL, so it can be read on any thread; only upload() needs the main thread
+final class DecodedPcm {
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+
+    private final byte[] pcm;
+    private final int channels;
+    private final int sampleRate;
+    private final int bitsPerSample;
+    private final PcmFormat.PcmDataType dataType;
+
+    private DecodedPcm(byte[] pcm, int channels, int sampleRate, int bitsPerSample, PcmFormat.PcmDataType dataType) {
+        this.pcm = pcm;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.dataType = dataType;
+    }
+
+    static DecodedPcm decode(FileHandle source) {
+        String extension = source.extension().toLowerCase(Locale.ROOT);
+        AudioStream stream = switch (extension) {
+            case "wav" -> new WavInputStream(source);
+            case "flac" -> new FlacInputStream(source);
+            case "mp3" -> new Mp3InputStream(source);
+            default -> new OggInputStream(source);
+        };
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[READ_CHUNK_BYTES];
+            for (int read = stream.read(chunk); read > 0; read = stream.read(chunk)) out.write(chunk, 0, read);
+            return new DecodedPcm(out.toByteArray(), stream.getChannels(), stream.getSampleRate(), stream.getBitsPerSample(), stream.getPcmDataType());
+        } finally {
+            stream.close();
+        }
+    }
+
+    SoundBuffer upload() {
+        return new SoundBuffer(pcm, channels, sampleRate, bitsPerSample, dataType);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import dev.neuxs.sound_controller.Mod;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Recording is a counter increment on the current frame; only the first record of a new frame swaps in a fresh
+// frame and folds the finished one into the summary window
+public class FrameStats {
+    private static final long SUMMARY_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final String name;
+    private final AtomicReference<Frame> current = new AtomicReference<>(new Frame(-1L));
+    private volatile Frame previous = null;
+
+    private final Object windowLock = new Object();
+    private long windowStart = System.nanoTime();
+    private int windowFrames;
+    private long windowPlayed;
+    private long windowCulled;
+    private int windowPeakCulled;
+
+    public FrameStats(String name) {
+        this.name = name;
+    }
+
+    public void recordPlayed() {
+        frame().played.incrementAndGet();
+    }
+
+    public void recordCulled() {
+        frame().culled.incrementAndGet();
+    }
+
+    // Counts for the last completed frame
+    public int getLastPlayed() {
+        Frame completed = lastCompleted();
+        return completed != null ? completed.played.get() : 0;
+    }
+
+    public int getLastCulled() {
+        Frame completed = lastCompleted();
+        return completed != null ? completed.culled.get() : 0;
+    }
+
+    private Frame lastCompleted() {
+        Frame frame = frame();
+        Frame completed = previous;
+        // Frames with no plays at all read as zero rather than repeating an older frame's numbers
+        return completed != null && completed.id == frame.id - 1 ? completed : null;
+    }
+
+    private Frame frame() {
+        long id = Gdx.graphics != null ? Gdx.graphics.getFrameId() : 0L;
+        while (true) {
+            Frame frame = current.get();
+            // A thread that read the frame counter just before it advanced counts into the newer frame
+            if (frame.id >= id) return frame;
+            Frame next = new Frame(id);
+            if (current.compareAndSet(frame, next)) {
+                close(frame);
+                return next;
+            }
+        }
+    }
+
+    // A record that raced the swap can still land in the closed frame; the debug summary tolerates that
+    private void close(Frame frame) {
+        if (frame.id < 0) return;
+        previous = frame;
+        int played = frame.played.get();
+        int culled = frame.culled.get();
+
+        synchronized (windowLock) {
+            windowFrames++;
+            windowPlayed += played;
+            windowCulled += culled;
+            windowPeakCulled = Math.max(windowPeakCulled, culled);
+            long now = System.nanoTime();
+            if (now - windowStart < SUMMARY_INTERVAL_NANOS) return;
+
+            if (windowCulled > 0) {
+                Mod.LOGGER.debug("{}: {} played, {} culled over {} active frame(s), peak {} culled in one frame",
+                        name, windowPlayed, windowCulled, windowFrames, windowPeakCulled);
+            }
+            windowStart = now;
+            windowFrames = 0;
+            windowPlayed = 0;
+            windowCulled = 0;
+            windowPeakCulled = 0;
+        }
+    }
+
+    private static final class Frame {
+        private final long id;
+        private final AtomicInteger played = new AtomicInteger();
+        private final AtomicInteger culled = new AtomicInteger();
+
+        private Frame(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import dev.neuxs.sound_controller.utils.SoundHelper;
+import finalforeach.cosmicreach.GameAssetLoader;
+import finalforeach.cosmicreach.settings.SoundSettings;
+import finalforeach.cosmicreach.util.Identifier;
+
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// The game's playlist state is not visible from here, so a track is only prefetched when it is certain to be next:
+// it must be the one music track that is not muted. A guess among several would mostly decode something that never plays.
+public class MusicPrefetcher {
+    // How long before the next track is expected the prefetch starts
+    private static final long PREFETCH_LEAD_MS = 20_000L;
+    private static final long MIN_DELAY_MS = 5_000L;
+    private static final long MS_PER_MINUTE = 60_000L;
+
+    private static final Object lock = new Object();
+    private static ScheduledExecutorService executor = null;
+    private static ScheduledFuture<?> scheduledPrefetch = null;
+    private static String prefetchedId = null;
+    private static String prefetchedPath = null;
+    private static SoundBuffer prefetched = null;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder wasted = new LongAdder();
+
+    // The prefetch thread only exists while the option is on; reloads and profile switches turn it on or off
+    public static void start() {
+        SettingsManager.addVolumeChangeListener(MusicPrefetcher::onConfigChanged);
+        applyOption(SettingsManager.getSnapshot());
+    }
+
+    private static void onConfigChanged(SoundConfig snapshot, Collection<String> changedIds) {
+        if (changedIds == null) applyOption(snapshot);
+    }
+
+    private static void applyOption(SoundConfig snapshot) {
+        boolean enabled = snapshot != null && snapshot.getPlaybackOptions().isMusicPrefetch();
+        synchronized (lock) {
+            if (enabled == (executor != null)) return;
+            if (!enabled) {
+                executor.shutdownNow();
+                executor = null;
+                scheduledPrefetch = null;
+                if (prefetched != null) releasePrefetched();
+                return;
+            }
+
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "SoundController-MusicPrefetch");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+            schedule();
+        }
+    }
+
+    // Hands a prefetched track to loadSound; from then on the game owns the buffer
+    public static SoundBuffer take(FileHandle file) {
+        if (file == null) return null;
+        synchronized (lock) {
+            if (prefetched == null || !file.path().equals(prefetchedPath)) return null;
+            SoundBuffer buffer = prefetched;
+            prefetched = null;
+            prefetchedPath = null;
+            prefetchedId = null;
+            hits.increment();
+            return buffer;
+        }
+    }
+
+    public static void onTrackLoaded(String soundId) {
+        if (!SoundHelper.getMusicTrackIds().contains(soundId)) return;
+        synchronized (lock) {
+            // The game picked something else, so the guess is released rather than kept around for another cycle
+            if (prefetched != null) releasePrefetched();
+            schedule();
+        }
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getWasted() {
+        return wasted.sum();
+    }
+
+    private static void schedule() {
+        if (executor == null) return;
+        if (scheduledPrefetch != null) scheduledPrefetch.cancel(false);
+
+        long frequencyMs = (long) (SoundSettings.musicFrequency.getValueAsFloat() * MS_PER_MINUTE);
+        long delay = Math.max(MIN_DELAY_MS, frequencyMs - PREFETCH_LEAD_MS);
+        scheduledPrefetch = executor.schedule(MusicPrefetcher::prefetchNext, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static void prefetchNext() {
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        if (snapshot == null || !snapshot.getPlaybackOptions().isMusicPrefetch()) return;
+        if (SoundSettings.musicVolume.getValueAsFloat() <= 0f) return;
+
+        String candidate;
+        synchronized (lock) {
+            if (prefetched != null) return;
+            candidate = pickCandidate(snapshot);
+        }
+        if (candidate == null) return;
+
+        DecodedPcm pcm = null;
+        FileHandle file = null;
+        try {
+            file = GameAssetLoader.loadAsset(Identifier.of(candidate));
+            // A streamed track never decodes up front, so there is nothing to get ahead of
+            if (file != null && file.exists() && !StreamingPlayback.shouldStream(candidate, file)) pcm = DecodedPcm.decode(file);
+        } catch (Exception e) {
+            Mod.LOGGER.error("Failed to prefetch music track {}: {}", candidate, e.getMessage(), e);
+        }
+        if (pcm == null || Gdx.app == null) return;
+
+        // Only the decode happens here; OpenAL is not thread-safe, so the buffer is created on the main thread
+        DecodedPcm decoded = pcm;
+        String path = file.path();
+        Gdx.app.postRunnable(() -> store(candidate, path, decoded));
+    }
+
+    private static void store(String candidate, String path, DecodedPcm pcm) {
+        synchronized (lock) {
+            if (prefetched != null) return;
+            try {
+                prefetched = pcm.upload();
+            } catch (Exception e) {
+                Mod.LOGGER.error("Failed to upload prefetched music track {}: {}", candidate, e.getMessage(), e);
+                return;
+            }
+            prefetchedId = candidate;
+            prefetchedPath = path;
+        }
+    }
+
+    private static String pickCandidate(SoundConfig snapshot) {
+        float mutedThreshold = snapshot.getPlaybackOptions().getMutedThreshold();
+        String candidate = null;
+        for (String trackId : SoundHelper.getMusicTrackIds()) {
+            // Muted tracks would be cancelled at play time anyway, so they are never worth decoding
+            if (snapshot.getEffectiveVolume(trackId) <= mutedThreshold) continue;
+            if (candidate != null) return null;
+            candidate = trackId;
+        }
+        return candidate;
+    }
+
+    private static void releasePrefetched() {
+        wasted.increment();
+        SoundBuffer buffer = prefetched;
+        String trackId = prefetchedId;
+        Runnable release = () -> {
+            try { buffer.dispose(); }
+            catch (Exception e) { Mod.LOGGER.error("Failed to release prefetched music track {}: {}", trackId, e.getMessage(), e); }
+        };
+        if (Gdx.app != null) Gdx.app.postRunnable(release);
+        else release.run();
+        prefetched = null;
+        prefetchedPath = null;
+        prefetchedId = null;
+    }
+}
@@ -0,0 +1,158 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import finalforeach.cosmicreach.audio.SoundManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+public class PlayCoalescer {
+    private static final Object lock = new Object();
+
+    private static IdentityHashMap<SoundBuffer, PendingPlay> pending2D = new IdentityHashMap<>();
+    private static IdentityHashMap<SoundBuffer, PendingPlay> pending3D = new IdentityHashMap<>();
+    private static ArrayList<PendingPlay> pendingOrder = new ArrayList<>();
+    private static IdentityHashMap<SoundBuffer, PendingPlay> spare2D = new IdentityHashMap<>();
+    private static IdentityHashMap<SoundBuffer, PendingPlay> spare3D = new IdentityHashMap<>();
+    private static ArrayList<PendingPlay> spareOrder = new ArrayList<>();
+    private static final ArrayDeque<PendingPlay> pool = new ArrayDeque<>();
+    private static boolean flushScheduled = false;
+
+    private static volatile Thread replayThread = null;
+
+    public static boolean isReplaying() {
+        return Thread.currentThread() == replayThread;
+    }
+
+    static void enqueue(SoundBuffer sound, int slot, float volume, float pitch, float pan, boolean withPan) {
+        synchronized (lock) {
+            PendingPlay play = pending2D.get(sound);
+            if (play == null) {
+                play = obtain(sound, false);
+                pending2D.put(sound, play);
+            } else PlaybackStats.COALESCED.increment(slot);
+
+            if (play.merge(volume)) {
+                play.pitch = pitch;
+                play.pan = pan;
+                play.withOptionalArg = withPan;
+            }
+            scheduleFlush();
+        }
+    }
+
+    static void enqueue3D(SoundBuffer sound, int slot, Vector3 position, float volume, float pitch, boolean withPitch) {
+        synchronized (lock) {
+            PendingPlay play = pending3D.get(sound);
+            if (play == null) {
+                play = obtain(sound, true);
+                pending3D.put(sound, play);
+            } else PlaybackStats.COALESCED.increment(slot);
+
+            // The loudest request decides where the merged sound comes from
+            if (play.merge(volume)) {
+                play.position.set(position);
+                play.pitch = pitch;
+                play.withOptionalArg = withPitch;
+            }
+            scheduleFlush();
+        }
+    }
+
+    private static PendingPlay obtain(SoundBuffer sound, boolean spatial) {
+        PendingPlay play = pool.poll();
+        if (play == null) play = new PendingPlay();
+        play.sound = sound;
+        play.spatial = spatial;
+        play.totalVolume = 0f;
+        play.loudestVolume = -1f;
+        pendingOrder.add(play);
+        return play;
+    }
+
+    private static void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        // Runs at the start of the next frame, after everything queued during this one
+        Gdx.app.postRunnable(PlayCoalescer::flush);
+    }
+
+    private static void flush() {
+        ArrayList<PendingPlay> plays;
+        synchronized (lock) {
+            plays = pendingOrder;
+            pendingOrder = spareOrder;
+            spareOrder = plays;
+
+            IdentityHashMap<SoundBuffer, PendingPlay> swap = pending2D;
+            pending2D = spare2D;
+            spare2D = swap;
+            swap = pending3D;
+            pending3D = spare3D;
+            spare3D = swap;
+            flushScheduled = false;
+        }
+
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        float maxVolume = snapshot != null ? snapshot.getPlaybackOptions().getCoalescedMaxVolume() : 1.0f;
+
+        replayThread = Thread.currentThread();
+        try {
+            for (int i = 0; i < plays.size(); i++) {
+                PendingPlay play = plays.get(i);
+                // Never quieter than the loudest single request, never louder than the cap otherwise
+                float volume = Math.min(play.totalVolume, Math.max(play.loudestVolume, maxVolume));
+                try { play.dispatch(volume); }
+                catch (Exception e) { Mod.LOGGER.error("Failed to play coalesced sound: {}", e.getMessage(), e); }
+            }
+        } finally {
+            replayThread = null;
+            synchronized (lock) {
+                for (int i = 0; i < plays.size(); i++) {
+                    PendingPlay play = plays.get(i);
+                    play.sound = null;
+                    pool.push(play);
+                }
+                plays.clear();
+                spare2D.clear();
+                spare3D.clear();
+            }
+        }
+    }
+
+    private static final class PendingPlay {
+        private SoundBuffer sound;
+        private boolean spatial;
+        private boolean withOptionalArg;
+        private final Vector3 position = new Vector3();
+        private float totalVolume;
+        private float loudestVolume;
+        private float pitch;
+        private float pan;
+
+        // Returns true when this request is the loudest so far and should supply the other parameters
+        private boolean merge(float volume) {
+            totalVolume += volume;
+            if (volume <= loudestVolume) return false;
+            loudestVolume = volume;
+            return true;
+        }
+
+        private void dispatch(float volume) {
+            SoundManager soundManager = SoundManager.INSTANCE;
+            if (spatial) {
+                if (withOptionalArg) soundManager.playSound3D(sound, position, volume, pitch);
+                else soundManager.playSound3D(sound, position, volume);
+            } else {
+                if (withOptionalArg) soundManager.playSound(sound, volume, pitch, pan);
+                else soundManager.playSound(sound, volume, pitch);
+            }
+        }
+    }
+}
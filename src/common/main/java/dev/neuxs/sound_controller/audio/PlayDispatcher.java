@@ -0,0 +1,169 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.Mod;
+import finalforeach.cosmicreach.audio.SoundManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Bounded multi-producer, single-consumer ring (Vyukov-style sequence numbers). Plays are gated and scaled on the
+// thread that makes them, so only admitted plays get here; SoundManager and OpenAL are not thread-safe, so the ring
+// is drained on the main thread once per frame and the drain does nothing but the play calls.
+public class PlayDispatcher {
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final long BACKPRESSURE_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final byte KIND_PAN = 0;
+    private static final byte KIND_NO_PAN = 1;
+    private static final byte KIND_3D_PITCH = 2;
+    private static final byte KIND_3D_NO_PITCH = 3;
+    private static final byte KIND_STREAM = 4;
+    private static final byte KIND_STREAM_3D = 5;
+
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong tail = new AtomicLong();
+    private static long head = 0L;
+
+    private static final SoundBuffer[] sounds = new SoundBuffer[CAPACITY];
+    private static final Vector3[] positions = new Vector3[CAPACITY];
+    private static final byte[] kinds = new byte[CAPACITY];
+    private static final int[] slots = new int[CAPACITY];
+    private static final float[] volumes = new float[CAPACITY];
+    private static final float[] pitches = new float[CAPACITY];
+    private static final float[] pans = new float[CAPACITY];
+
+    private static final AtomicBoolean frameDrainPending = new AtomicBoolean(false);
+    // The main thread, learned from the first frame drain
+    private static volatile Thread ownerThread = null;
+    private static volatile Thread drainThread = null;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+            positions[i] = new Vector3();
+        }
+    }
+
+    // True while queued plays are being handed to SoundManager, so they skip the gate they already passed
+    public static boolean isDraining() {
+        return Thread.currentThread() == drainThread;
+    }
+
+    static boolean isOwnerThread() {
+        return Thread.currentThread() == ownerThread;
+    }
+
+    // The volume is final: it already includes the sound's own multiplier
+    static boolean enqueue(SoundBuffer sound, int slot, float volume, float pitch, float pan, boolean withPan) {
+        return offer(sound, slot, null, volume, pitch, pan, withPan ? KIND_PAN : KIND_NO_PAN);
+    }
+
+    static boolean enqueue3D(SoundBuffer sound, int slot, Vector3 position, float volume, float pitch, boolean withPitch) {
+        return offer(sound, slot, position, volume, pitch, 0f, withPitch ? KIND_3D_PITCH : KIND_3D_NO_PITCH);
+    }
+
+    // Streams apply the sound's multiplier themselves, so they take the caller's volume
+    static boolean enqueueStream(SoundBuffer placeholder, int slot, Vector3 position, float volume, float pitch) {
+        return offer(placeholder, slot, position, volume, pitch, 0f, position != null ? KIND_STREAM_3D : KIND_STREAM);
+    }
+
+    private static boolean offer(SoundBuffer sound, int slot, Vector3 position, float volume, float pitch, float pan, byte kind) {
+        long deadline = 0L;
+        while (true) {
+            long claim = tail.get();
+            int index = (int) (claim & MASK);
+            long difference = sequences.get(index) - claim;
+
+            if (difference == 0) {
+                if (!tail.compareAndSet(claim, claim + 1)) continue;
+                sounds[index] = sound;
+                if (position != null) positions[index].set(position);
+                kinds[index] = kind;
+                slots[index] = slot;
+                volumes[index] = volume;
+                pitches[index] = pitch;
+                pans[index] = pan;
+                sequences.set(index, claim + 1);
+                scheduleFrameDrain();
+                return true;
+            }
+
+            if (difference < 0) {
+                // Full: the main thread empties the ring itself, anyone else waits a little for the next frame
+                if (Thread.currentThread() == ownerThread) {
+                    drainNow();
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (deadline == 0L) deadline = now + BACKPRESSURE_TIMEOUT_NANOS;
+                else if (now - deadline > 0) {
+                    PlaybackStats.DISPATCH_DROPPED.increment(slot);
+                    return false;
+                }
+                LockSupport.parkNanos(50_000L);
+            }
+        }
+    }
+
+    private static void scheduleFrameDrain() {
+        // Posted runnables run on the main thread at the start of the next frame, after everything queued during this one
+        if (frameDrainPending.compareAndSet(false, true)) Gdx.app.postRunnable(PlayDispatcher::drainFrame);
+    }
+
+    private static void drainFrame() {
+        frameDrainPending.set(false);
+        ownerThread = Thread.currentThread();
+        drainNow();
+    }
+
+    private static void drainNow() {
+        drainThread = Thread.currentThread();
+        try {
+            drain();
+        } finally {
+            drainThread = null;
+        }
+    }
+
+    private static void drain() {
+        SoundManager soundManager = SoundManager.INSTANCE;
+        while (true) {
+            int index = (int) (head & MASK);
+            // Stops at the first slot a producer has claimed but not yet published, which keeps plays in order
+            if (sequences.get(index) != head + 1) return;
+
+            SoundBuffer sound = sounds[index];
+            sounds[index] = null;
+            byte kind = kinds[index];
+            int slot = slots[index];
+            float volume = volumes[index];
+            float pitch = pitches[index];
+            float pan = pans[index];
+            Vector3 position = positions[index];
+
+            try {
+                switch (kind) {
+                    case KIND_PAN -> soundManager.playSound(sound, volume, pitch, pan);
+                    case KIND_NO_PAN -> soundManager.playSound(sound, volume, pitch);
+                    case KIND_3D_PITCH -> soundManager.playSound3D(sound, position, volume, pitch);
+                    case KIND_STREAM -> StreamingPlayback.play(sound, slot, null, volume, pitch);
+                    case KIND_STREAM_3D -> StreamingPlayback.play(sound, slot, position, volume, pitch);
+                    default -> soundManager.playSound3D(sound, position, volume);
+                }
+            } catch (Exception e) {
+                Mod.LOGGER.error("Failed to play dispatched sound: {}", e.getMessage(), e);
+            }
+
+            // The position vector is reused by the producer that claims this slot next, so release it last
+            sequences.set(index, head + CAPACITY);
+            head++;
+        }
+    }
+}
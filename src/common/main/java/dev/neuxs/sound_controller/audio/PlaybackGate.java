@@ -0,0 +1,117 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.settings.PlaybackOptions;
+import dev.neuxs.sound_controller.settings.PolicyTable;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import dev.neuxs.sound_controller.settings.SoundPolicy;
+import dev.neuxs.sound_controller.settings.VolumeTable;
+import dev.neuxs.sound_controller.utils.SoundSlotHolder;
+
+public class PlaybackGate {
+    public static int slotOf(SoundBuffer sound) {
+        return sound != null ? ((SoundSlotHolder) (Object) sound).sound_controller$getSoundSlot() : 0;
+    }
+
+    public static float getVolumeMultiplier(SoundBuffer sound) {
+        // Dispatched plays were scaled on the thread that queued them
+        if (PlayDispatcher.isDraining()) return 1.0f;
+        // Unregistered buffers sit in slot 0, which always reads 1.0f
+        return VolumeTable.get(slotOf(sound));
+    }
+
+    public static boolean admit(SoundBuffer sound, float volume, float pitch, float pan, boolean withPan) {
+        if (sound == null) return true;
+        // Dispatched plays already passed the gate on the thread that queued them
+        if (PlayDispatcher.isDraining()) return true;
+
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        int slot = slotOf(sound);
+        if (isMuted(snapshot, slot)) return false;
+        if (shouldCoalesce(snapshot)) {
+            PlayCoalescer.enqueue(sound, slot, volume, pitch, pan, withPan);
+            return false;
+        }
+        if (!tryAdmit(snapshot, sound, slot, pitch)) return false;
+        if (shouldDispatch(snapshot)) {
+            if (StreamingPlayback.isPlaceholder(sound)) PlayDispatcher.enqueueStream(sound, slot, null, volume, pitch);
+            else PlayDispatcher.enqueue(sound, slot, volume * VolumeTable.get(slot), pitch, pan, withPan);
+            return false;
+        }
+        return !startedStream(sound, slot, null, volume, pitch);
+    }
+
+    public static boolean admit3D(SoundBuffer sound, Vector3 position, float volume, float pitch, boolean withPitch) {
+        if (sound == null) return true;
+        if (PlayDispatcher.isDraining()) return true;
+
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        int slot = slotOf(sound);
+        if (isMuted(snapshot, slot)) return false;
+
+        // The per-frame stats only describe culling, so they are skipped entirely while it is off
+        boolean culling = snapshot != null && snapshot.getPlaybackOptions().getCullThreshold() > 0f;
+        if (culling && !PlayCoalescer.isReplaying()) {
+            PlaybackOptions options = snapshot.getPlaybackOptions();
+            if (AudibilityCuller.isInaudible(AudibilityCuller.estimateGain(slot, position, volume), options)) {
+                PlaybackStats.CULLED.increment(slot);
+                PlaybackStats.SPATIAL_FRAME.recordCulled();
+                return false;
+            }
+        }
+        if (position != null && shouldCoalesce(snapshot)) {
+            PlayCoalescer.enqueue3D(sound, slot, position, volume, pitch, withPitch);
+            return false;
+        }
+        if (!tryAdmit(snapshot, sound, slot, pitch)) return false;
+        if (culling) PlaybackStats.SPATIAL_FRAME.recordPlayed();
+        if (position != null && shouldDispatch(snapshot)) {
+            if (StreamingPlayback.isPlaceholder(sound)) PlayDispatcher.enqueueStream(sound, slot, position, volume, pitch);
+            else PlayDispatcher.enqueue3D(sound, slot, position, volume * VolumeTable.get(slot), pitch, withPitch);
+            return false;
+        }
+        return !startedStream(sound, slot, position, volume, pitch);
+    }
+
+    private static boolean isMuted(SoundConfig snapshot, int slot) {
+        if (snapshot == null || VolumeTable.get(slot) > snapshot.getPlaybackOptions().getMutedThreshold()) return false;
+        PlaybackStats.MUTED_SKIPS.increment(slot);
+        return true;
+    }
+
+    // Only plays made off the main thread are queued; the main thread's own plays go straight through
+    private static boolean shouldDispatch(SoundConfig snapshot) {
+        return snapshot != null && snapshot.getPlaybackOptions().isAsyncDispatch()
+                && Gdx.app != null && !PlayDispatcher.isOwnerThread() && !PlayCoalescer.isReplaying();
+    }
+
+    private static boolean shouldCoalesce(SoundConfig snapshot) {
+        return snapshot != null && snapshot.getPlaybackOptions().isCoalesceSameFrame()
+                && Gdx.app != null && !PlayCoalescer.isReplaying();
+    }
+
+    // The voice budget goes first, so a play it rejects never spends a limiter token, and a voice the limiter refuses is handed back
+    private static boolean tryAdmit(SoundConfig snapshot, SoundBuffer sound, int slot, float pitch) {
+        SoundPolicy policy = PolicyTable.get(slot);
+        int maxVoices = snapshot != null ? snapshot.getPlaybackOptions().getMaxVoices() : 0;
+        int voice = -1;
+        if (maxVoices > 0) {
+            voice = VoiceBudget.tryAcquire(sound, slot, policy.getPriority(), pitch, maxVoices);
+            if (voice == VoiceBudget.REJECTED) return false;
+        }
+
+        if (PlaybackLimiter.tryAcquire(sound, slot, policy)) return true;
+        VoiceBudget.release(voice, slot);
+        PlaybackStats.LIMITED_SKIPS.increment(slot);
+        return false;
+    }
+
+    private static boolean startedStream(SoundBuffer sound, int slot, Vector3 position, float volume, float pitch) {
+        if (!StreamingPlayback.isPlaceholder(sound)) return false;
+        StreamingPlayback.play(sound, slot, position, volume, pitch);
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package dev.neuxs.sound_controller.audio;
+
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.settings.SoundPolicy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Token buckets kept as GCRA "theoretical arrival times": one long per slot and bucket, no allocation per play
+public class PlaybackLimiter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long NANOS_PER_MS = 1_000_000L;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Used when a buffer cannot report its length, so a cap still refills at a sane rate
+    private static final long FALLBACK_DURATION_NANOS = NANOS_PER_SECOND;
+    // Keeps every timestamp positive, so an untouched slot (0) is always ready
+    private static final long EPOCH = System.nanoTime() - NANOS_PER_SECOND;
+
+    private static volatile AtomicLongArray instanceArrivals = new AtomicLongArray(INITIAL_CAPACITY);
+    private static volatile AtomicLongArray retriggerArrivals = new AtomicLongArray(INITIAL_CAPACITY);
+    private static final Object growLock = new Object();
+
+    public static boolean tryAcquire(SoundBuffer sound, int slot, SoundPolicy policy) {
+        if (policy.isUnrestricted()) return true;
+
+        if (slot >= instanceArrivals.length()) grow(slot);
+        AtomicLongArray instances = instanceArrivals;
+        AtomicLongArray retriggers = retriggerArrivals;
+        long now = System.nanoTime() - EPOCH;
+
+        long retriggerInterval = policy.getMinIntervalMs() * NANOS_PER_MS;
+        if (retriggerInterval > 0 && retriggers.get(slot) > now) return false;
+
+        int maxInstances = policy.getMaxInstances();
+        if (maxInstances > 0) {
+            // A bucket of maxInstances tokens that refills one token per 1/maxInstances of the sound's length,
+            // so in steady state no more than maxInstances copies overlap
+            long interval = Math.max(1L, durationNanos(sound) / maxInstances);
+            long tolerance = interval * (maxInstances - 1);
+            if (!consume(instances, slot, now, interval, tolerance)) return false;
+        }
+
+        if (retriggerInterval > 0) retriggers.accumulateAndGet(slot, now + retriggerInterval, Math::max);
+        return true;
+    }
+
+    public static void reset() {
+        synchronized (growLock) {
+            instanceArrivals = new AtomicLongArray(instanceArrivals.length());
+            retriggerArrivals = new AtomicLongArray(retriggerArrivals.length());
+        }
+    }
+
+    private static boolean consume(AtomicLongArray arrivals, int slot, long now, long interval, long tolerance) {
+        while (true) {
+            long arrival = arrivals.get(slot);
+            if (arrival - tolerance > now) return false;
+            if (arrivals.compareAndSet(slot, arrival, Math.max(arrival, now) + interval)) return true;
+        }
+    }
+
+    static long durationNanos(SoundBuffer sound) {
+        float seconds = sound.getDuration();
+        return seconds > 0f ? (long) (seconds * NANOS_PER_SECOND) : FALLBACK_DURATION_NANOS;
+    }
+
+    private static void grow(int slot) {
+        synchronized (growLock) {
+            int length = instanceArrivals.length();
+            if (slot < length) return;
+
+            int newLength = length;
+            while (newLength <= slot) newLength *= 2;
+            instanceArrivals = copyOf(instanceArrivals, newLength);
+            retriggerArrivals = copyOf(retriggerArrivals, newLength);
+        }
+    }
+
+    private static AtomicLongArray copyOf(AtomicLongArray source, int newLength) {
+        AtomicLongArray grown = new AtomicLongArray(newLength);
+        for (int i = 0; i < source.length(); i++) grown.set(i, source.get(i));
+        return grown;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.neuxs.sound_controller.audio;
+
+public class PlaybackStats {
+    public static final SlotCounters MUTED_SKIPS = new SlotCounters();
+    public static final SlotCounters LIMITED_SKIPS = new SlotCounters();
+    public static final SlotCounters COALESCED = new SlotCounters();
+    public static final SlotCounters CULLED = new SlotCounters();
+    public static final SlotCounters VOICE_REJECTED = new SlotCounters();
+    public static final SlotCounters DISPATCH_DROPPED = new SlotCounters();
+    public static final FrameStats SPATIAL_FRAME = new FrameStats("3D sounds");
+}
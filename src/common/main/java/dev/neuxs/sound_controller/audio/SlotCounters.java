@@ -0,0 +1,44 @@
+package dev.neuxs.sound_controller.audio;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SlotCounters {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final LongAdder total = new LongAdder();
+    private volatile AtomicLongArray perSlot = new AtomicLongArray(INITIAL_CAPACITY);
+
+    public void increment(int slot) {
+        total.increment();
+        AtomicLongArray counts = perSlot;
+        if (slot >= counts.length()) counts = grow(slot);
+        counts.incrementAndGet(slot);
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long get(int slot) {
+        AtomicLongArray counts = perSlot;
+        return slot < counts.length() ? counts.get(slot) : 0L;
+    }
+
+    public void reset() {
+        total.reset();
+        perSlot = new AtomicLongArray(perSlot.length());
+    }
+
+    private synchronized AtomicLongArray grow(int slot) {
+        AtomicLongArray counts = perSlot;
+        if (slot < counts.length()) return counts;
+
+        int newLength = counts.length();
+        while (newLength <= slot) newLength *= 2;
+        AtomicLongArray grown = new AtomicLongArray(newLength);
+        for (int i = 0; i < counts.length(); i++) grown.set(i, counts.get(i));
+        perSlot = grown;
+        return grown;
+    }
+}
@@ -0,0 +1,260 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.files.FileHandle;
+import de.pottgames.tuningfork.Audio;
+import de.pottgames.tuningfork.FlacLoader;
+import de.pottgames.tuningfork.Mp3Loader;
+import de.pottgames.tuningfork.OggLoader;
+import de.pottgames.tuningfork.SoundBuffer;
+import de.pottgames.tuningfork.WaveLoader;
+import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import dev.neuxs.sound_controller.utils.BufferCacheHolder;
+import dev.neuxs.sound_controller.utils.SoundSlotHolder;
+import org.lwjgl.openal.AL10;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// With a budget set, the game is handed a one-sample handle, like a streamed sound's placeholder, and the decoded audio
+// stays with the cache. Plays through SoundManager are redirected to that copy, and only that copy is ever evicted and
+// decoded again, so nothing the game or another mod can reach is disposed. Handles are held weakly, and an entry goes
+// away once its handle is collected.
+public class SoundBufferCache {
+    private static final int HANDLE_SAMPLE_RATE = 44_100;
+    // Only used when OpenAL cannot report a buffer's size: 44.1 kHz, stereo, 16-bit
+    private static final long FALLBACK_BYTES_PER_SECOND = 44_100L * 2 * 2;
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private static final Object lock = new Object();
+    private static final LinkedHashMap<CacheEntry, Boolean> leastRecentlyPlayed = new LinkedHashMap<>(256, 0.75f, true);
+    private static final ReferenceQueue<SoundBuffer> collectedHandles = new ReferenceQueue<>();
+    private static long residentBytes = 0L;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    // Returns null while the cache is off or the file can't be decoded, and the game loads the sound itself
+    public static SoundBuffer load(FileHandle source) {
+        if (source == null || getBudgetBytes() <= 0) return null;
+        SoundBuffer decoded = decode(source);
+        if (decoded == null) return null;
+
+        SoundBuffer handle = new SoundBuffer(new short[1], 1, HANDLE_SAMPLE_RATE);
+        long bytes = measureBytes(decoded);
+        synchronized (lock) {
+            expungeCollected();
+            CacheEntry entry = new CacheEntry(handle, source, bytes, decoded.getDuration(), collectedHandles);
+            entry.resident = decoded;
+            ((BufferCacheHolder) (Object) handle).sound_controller$setCacheEntry(entry);
+            leastRecentlyPlayed.put(entry, Boolean.TRUE);
+            residentBytes += entry.bytes;
+            enforceBudget(entry);
+        }
+        return handle;
+    }
+
+    public static void pin(SoundBuffer buffer) {
+        if (buffer == null) return;
+        synchronized (lock) {
+            if (((BufferCacheHolder) (Object) buffer).sound_controller$getCacheEntry() instanceof CacheEntry entry) {
+                entry.pinned = true;
+            }
+        }
+    }
+
+    public static SoundBuffer resolve(SoundBuffer handle) {
+        if (handle == null || !(((BufferCacheHolder) (Object) handle).sound_controller$getCacheEntry() instanceof CacheEntry entry)) {
+            return handle;
+        }
+
+        synchronized (lock) {
+            if (entry.released) return handle;
+            leastRecentlyPlayed.get(entry);
+            entry.lastPlayed = System.nanoTime();
+
+            if (entry.resident != null) {
+                hits.increment();
+                return withSlotOf(handle, entry.resident);
+            }
+            misses.increment();
+        }
+
+        // Decoding takes milliseconds, so it runs outside the lock; if another play got there first its copy wins
+        SoundBuffer decoded = decode(entry.source);
+        if (decoded == null) return handle;
+
+        SoundBuffer winner;
+        synchronized (lock) {
+            winner = entry.released ? handle : entry.resident;
+            if (winner == null) {
+                entry.resident = decoded;
+                residentBytes += entry.bytes;
+                enforceBudget(entry);
+                return withSlotOf(handle, decoded);
+            }
+        }
+        decoded.dispose();
+        return withSlotOf(handle, winner);
+    }
+
+    // The handle holds a single sample, so its length is answered from the decoded file
+    public static float getDuration(SoundBuffer handle) {
+        return ((BufferCacheHolder) (Object) handle).sound_controller$getCacheEntry() instanceof CacheEntry entry ? entry.duration : -1f;
+    }
+
+    // Called when the game disposes a handle; the decoded copy goes with it
+    public static void onDisposed(SoundBuffer buffer) {
+        if (!(((BufferCacheHolder) (Object) buffer).sound_controller$getCacheEntry() instanceof CacheEntry entry)) return;
+
+        synchronized (lock) {
+            if (entry.released) return;
+            leastRecentlyPlayed.remove(entry);
+            release(entry);
+        }
+    }
+
+    public static void trim() {
+        synchronized (lock) {
+            expungeCollected();
+            enforceBudget(null);
+        }
+    }
+
+    public static int getTrackedCount() {
+        synchronized (lock) {
+            expungeCollected();
+            return leastRecentlyPlayed.size();
+        }
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getEvictions() {
+        return evictions.sum();
+    }
+
+    public static long getResidentBytes() {
+        synchronized (lock) {
+            expungeCollected();
+            return residentBytes;
+        }
+    }
+
+    private static void expungeCollected() {
+        Reference<? extends SoundBuffer> reference;
+        while ((reference = collectedHandles.poll()) != null) {
+            CacheEntry entry = (CacheEntry) reference;
+            if (leastRecentlyPlayed.remove(entry) != null) release(entry);
+        }
+    }
+
+    private static void release(CacheEntry entry) {
+        entry.released = true;
+        if (entry.resident == null) return;
+
+        SoundBuffer resident = entry.resident;
+        entry.resident = null;
+        residentBytes -= entry.bytes;
+        try { resident.dispose(); }
+        catch (Exception e) { Mod.LOGGER.error("Failed to dispose cached sound buffer {}: {}", entry.source.path(), e.getMessage(), e); }
+    }
+
+    private static void enforceBudget(CacheEntry keep) {
+        long budget = getBudgetBytes();
+        if (budget <= 0) return;
+
+        long now = System.nanoTime();
+        Iterator<CacheEntry> iterator = leastRecentlyPlayed.keySet().iterator();
+        while (residentBytes > budget && iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            if (entry == keep || entry.pinned || entry.resident == null || entry.isPossiblyPlaying(now)) continue;
+            evict(entry);
+        }
+    }
+
+    private static void evict(CacheEntry entry) {
+        SoundBuffer resident = entry.resident;
+        entry.resident = null;
+        residentBytes -= entry.bytes;
+        evictions.increment();
+        try { resident.dispose(); }
+        catch (Exception e) { Mod.LOGGER.error("Failed to dispose evicted sound buffer {}: {}", entry.source.path(), e.getMessage(), e); }
+    }
+
+    private static long getBudgetBytes() {
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        int budgetMb = snapshot != null ? snapshot.getPlaybackOptions().getBufferCacheBudgetMb() : 0;
+        return budgetMb * BYTES_PER_MB;
+    }
+
+    // Volume and policy lookups read the slot off whichever buffer is played
+    private static SoundBuffer withSlotOf(SoundBuffer handle, SoundBuffer resident) {
+        int slot = ((SoundSlotHolder) (Object) handle).sound_controller$getSoundSlot();
+        SoundSlotHolder holder = (SoundSlotHolder) (Object) resident;
+        if (holder.sound_controller$getSoundSlot() != slot) holder.sound_controller$setSoundSlot(slot);
+        return resident;
+    }
+
+    // OpenAL knows the size it stores, so mono, 8-bit and low-rate sounds are not charged as 44.1 kHz stereo
+    private static long measureBytes(SoundBuffer buffer) {
+        if (Audio.get() != null) {
+            int size = AL10.alGetBufferi(buffer.getBufferId(), AL10.AL_SIZE);
+            if (size > 0) return size;
+        }
+        return Math.max(1L, (long) Math.ceil(Math.max(0f, buffer.getDuration()) * FALLBACK_BYTES_PER_SECOND));
+    }
+
+    static SoundBuffer decode(FileHandle source) {
+        try {
+            String extension = source.extension().toLowerCase(Locale.ROOT);
+            return switch (extension) {
+                case "wav" -> WaveLoader.load(source);
+                case "flac" -> FlacLoader.load(source);
+                case "mp3" -> Mp3Loader.load(source);
+                default -> OggLoader.load(source);
+            };
+        } catch (Exception e) {
+            Mod.LOGGER.error("Failed to decode sound {} for the buffer cache: {}", source.path(), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // Weak on the handle, which the game holds; the decoded copy belongs to the cache
+    private static final class CacheEntry extends WeakReference<SoundBuffer> {
+        private final FileHandle source;
+        private final long bytes;
+        private final float duration;
+        private final long durationNanos;
+        private SoundBuffer resident;
+        private long lastPlayed = Long.MIN_VALUE;
+        private boolean pinned;
+        private boolean released;
+
+        private CacheEntry(SoundBuffer handle, FileHandle source, long bytes, float duration, ReferenceQueue<SoundBuffer> queue) {
+            super(handle, queue);
+            this.source = source;
+            this.bytes = bytes;
+            this.duration = Math.max(0f, duration);
+            this.durationNanos = (long) (this.duration * 1_000_000_000L);
+        }
+
+        // Disposing a buffer that a source is still playing would cut it off; doubled to allow for lowered pitch
+        private boolean isPossiblyPlaying(long now) {
+            return lastPlayed != Long.MIN_VALUE && now - lastPlayed < durationNanos * 2;
+        }
+    }
+}
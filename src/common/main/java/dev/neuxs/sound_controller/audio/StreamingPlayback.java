@@ -0,0 +1,197 @@
+package dev.neuxs.sound_controller.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector3;
+import de.pottgames.tuningfork.SoundBuffer;
+import de.pottgames.tuningfork.StreamedSoundSource;
+import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.settings.PlaybackOptions;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import dev.neuxs.sound_controller.settings.VolumeTable;
+import dev.neuxs.sound_controller.utils.SoundHelper;
+import dev.neuxs.sound_controller.utils.StreamedBufferHolder;
+import finalforeach.cosmicreach.settings.SoundSettings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Streamed sounds hand the game a one-sample placeholder buffer; plays of it start a StreamedSoundSource instead,
+// which decodes the file through tuningfork's small ring of stream buffers
+public class StreamingPlayback {
+    private static final long POLL_INTERVAL_MS = 250L;
+    private static final int PLACEHOLDER_SAMPLE_RATE = 44_100;
+    private static final long BYTES_PER_KB = 1024L;
+
+    private static final Object lock = new Object();
+    private static final List<ActiveStream> activeStreams = new ArrayList<>();
+    private static ScheduledExecutorService poller = null;
+    private static final AtomicBoolean pollPending = new AtomicBoolean(false);
+
+    public static SoundBuffer createPlaceholder(String soundId, FileHandle file) {
+        if (!shouldStream(soundId, file)) return null;
+
+        SoundBuffer placeholder = new SoundBuffer(new short[1], 1, PLACEHOLDER_SAMPLE_RATE);
+        ((StreamedBufferHolder) (Object) placeholder).sound_controller$setStreamSource(new StreamInfo(soundId, file));
+        return placeholder;
+    }
+
+    public static boolean shouldStream(String soundId, FileHandle file) {
+        SoundConfig snapshot = SettingsManager.getSnapshot();
+        if (snapshot == null) return false;
+
+        PlaybackOptions options = snapshot.getPlaybackOptions();
+        if (options.isStreamMusic() && SoundHelper.getMusicTrackIds().contains(soundId)) return true;
+        if (snapshot.getPolicy(soundId).isStream()) return true;
+        return options.getStreamThresholdKb() > 0 && file != null && file.length() > options.getStreamThresholdKb() * BYTES_PER_KB;
+    }
+
+    public static boolean isPlaceholder(SoundBuffer sound) {
+        return streamInfoOf(sound) != null;
+    }
+
+    // Reports the streamed file's length so callers timing a track against its buffer still see the real duration
+    public static float getDuration(SoundBuffer sound) {
+        StreamInfo info = streamInfoOf(sound);
+        if (info == null) return -1f;
+
+        synchronized (info) {
+            if (Float.isNaN(info.duration)) {
+                StreamedSoundSource probe = null;
+                try {
+                    probe = new StreamedSoundSource(info.file);
+                    info.duration = probe.getDuration();
+                } catch (Exception e) {
+                    Mod.LOGGER.error("Failed to read the duration of streamed sound {}: {}", info.soundId, e.getMessage(), e);
+                    info.duration = -1f;
+                } finally {
+                    if (probe != null) probe.dispose();
+                }
+            }
+            return info.duration;
+        }
+    }
+
+    static void play(SoundBuffer placeholder, int slot, Vector3 position, float volume, float pitch) {
+        StreamInfo info = streamInfoOf(placeholder);
+        if (info == null) return;
+
+        try {
+            StreamedSoundSource source = new StreamedSoundSource(info.file);
+            ActiveStream stream = new ActiveStream(info, slot, source, volume);
+            source.setRelative(position == null);
+            if (position != null) source.setPosition(position);
+            source.setPitch(pitch);
+            source.setVolume(stream.effectiveVolume());
+            source.play();
+
+            synchronized (lock) {
+                activeStreams.add(stream);
+                ensurePolling();
+            }
+        } catch (Exception e) {
+            Mod.LOGGER.error("Failed to start streamed sound {}: {}", info.soundId, e.getMessage(), e);
+        }
+    }
+
+    public static int getActiveStreamCount() {
+        synchronized (lock) {
+            return activeStreams.size();
+        }
+    }
+
+    // Listeners run on whichever thread published the change, and source calls belong on the main thread
+    private static void onVolumesChanged(SoundConfig snapshot, Collection<String> changedIds) {
+        runOnMainThread(() -> applyVolumes(changedIds));
+    }
+
+    private static void applyVolumes(Collection<String> changedIds) {
+        synchronized (lock) {
+            for (ActiveStream stream : activeStreams) {
+                if (changedIds == null || changedIds.contains(stream.info.soundId)) stream.source.setVolume(stream.effectiveVolume());
+            }
+        }
+    }
+
+    private static void ensurePolling() {
+        if (poller != null) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SoundController-StreamPoller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(StreamingPlayback::schedulePoll, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        SettingsManager.addVolumeChangeListener(StreamingPlayback::onVolumesChanged);
+    }
+
+    // The poller only decides when to look; the liveness check and the release run on the main thread
+    private static void schedulePoll() {
+        if (pollPending.compareAndSet(false, true)) runOnMainThread(StreamingPlayback::releaseFinished);
+    }
+
+    private static void releaseFinished() {
+        pollPending.set(false);
+        List<ActiveStream> finished = new ArrayList<>();
+        synchronized (lock) {
+            activeStreams.removeIf(stream -> {
+                if (stream.source.isPlaying()) return false;
+                finished.add(stream);
+                return true;
+            });
+        }
+
+        for (ActiveStream stream : finished) {
+            try { stream.source.dispose(); }
+            catch (Exception e) { Mod.LOGGER.error("Failed to release streamed sound {}: {}", stream.info.soundId, e.getMessage(), e); }
+        }
+    }
+
+    private static void runOnMainThread(Runnable task) {
+        if (Gdx.app != null) Gdx.app.postRunnable(task);
+        else task.run();
+    }
+
+    private static StreamInfo streamInfoOf(SoundBuffer sound) {
+        if (sound == null) return null;
+        return ((StreamedBufferHolder) (Object) sound).sound_controller$getStreamSource() instanceof StreamInfo info ? info : null;
+    }
+
+    private static final class StreamInfo {
+        private final String soundId;
+        private final FileHandle file;
+        private final boolean music;
+        private float duration = Float.NaN;
+
+        private StreamInfo(String soundId, FileHandle file) {
+            this.soundId = soundId;
+            this.file = file;
+            this.music = SoundHelper.getMusicTrackIds().contains(soundId);
+        }
+    }
+
+    private static final class ActiveStream {
+        private final StreamInfo info;
+        private final int slot;
+        private final StreamedSoundSource source;
+        private final float requestedVolume;
+
+        private ActiveStream(StreamInfo info, int slot, StreamedSoundSource source, float requestedVolume) {
+            this.info = info;
+            this.slot = slot;
+            this.source = source;
+            this.requestedVolume = requestedVolume;
+        }
+
+        // SoundManager is bypassed, so the game's own volume setting is applied here along with ours
+        private float effectiveVolume() {
+            float gameVolume = (info.music ? SoundSettings.musicVolume : SoundSettings.soundVolume).getValueAsFloat();
+            return requestedVolume * VolumeTable.get(slot) * gameVolume;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.neuxs.sound_controller.audio;
+
+import de.pottgames.tuningfork.SoundBuffer;
+
+import java.util.Arrays;
+
+// SoundManager plays are fire-and-forget, so voices are tracked by their expected end time rather than by source.
+// Nothing already playing can be stopped, so a full budget rejects the new play instead of evicting anyone.
+public class VoiceBudget {
+    static final int REJECTED = -1;
+    // Plays above the default priority also get the last quarter of the budget, so UI and music still get through
+    // when ambient sounds have used up the rest
+    private static final int RESERVED_DIVISOR = 4;
+
+    private static final Object lock = new Object();
+
+    private static int[] slots = new int[0];
+    private static long[] endTimes = new long[0];
+
+    // Returns the voice the play holds, or REJECTED
+    static int tryAcquire(SoundBuffer sound, int slot, int priority, float pitch, int maxVoices) {
+        long now = System.nanoTime();
+        long duration = PlaybackLimiter.durationNanos(sound);
+        if (pitch > 0f) duration = (long) (duration / pitch);
+
+        synchronized (lock) {
+            if (endTimes.length != maxVoices) resize(maxVoices);
+
+            int free = -1;
+            int active = 0;
+            for (int i = 0; i < maxVoices; i++) {
+                if (endTimes[i] - now > 0) active++;
+                else if (free < 0) free = i;
+            }
+
+            int limit = priority > 0 ? maxVoices : maxVoices - maxVoices / RESERVED_DIVISOR;
+            if (free < 0 || active >= limit) {
+                PlaybackStats.VOICE_REJECTED.increment(slot);
+                return REJECTED;
+            }
+
+            slots[free] = slot;
+            endTimes[free] = now + duration;
+            return free;
+        }
+    }
+
+    // Hands back a voice whose play was refused by a later stage
+    static void release(int voice, int slot) {
+        if (voice < 0) return;
+        synchronized (lock) {
+            if (voice < endTimes.length && slots[voice] == slot) endTimes[voice] = System.nanoTime();
+        }
+    }
+
+    public static int getActiveVoices() {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            int active = 0;
+            for (long endTime : endTimes) if (endTime - now > 0) active++;
+            return active;
+        }
+    }
+
+    private static void resize(int maxVoices) {
+        // A changed budget starts from an empty ledger; voices already playing finish on their own
+        long expired = System.nanoTime();
+        slots = new int[maxVoices];
+        endTimes = new long[maxVoices];
+        Arrays.fill(endTimes, expired);
+    }
+}
@@ -0,0 +1,72 @@
+package dev.neuxs.sound_controller.mixins;
+
+import de.pottgames.tuningfork.SoundBuffer;
+import dev.neuxs.sound_controller.audio.SoundBufferCache;
+import dev.neuxs.sound_controller.audio.StreamingPlayback;
+import dev.neuxs.sound_controller.utils.BufferCacheHolder;
+import dev.neuxs.sound_controller.utils.SoundBufferRegistry;
+import dev.neuxs.sound_controller.utils.SoundSlotHolder;
+import dev.neuxs.sound_controller.utils.StreamedBufferHolder;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@SuppressWarnings("unused")
+@Mixin(value = SoundBuffer.class, remap = false)
+public abstract class SoundBufferMixin implements SoundSlotHolder, BufferCacheHolder, StreamedBufferHolder {
+    @Unique
+    private volatile int sound_controller$soundSlot;
+    @Unique
+    private volatile Object sound_controller$cacheEntry;
+    @Unique
+    private volatile Object sound_controller$streamSource;
+
+    @Override
+    public int sound_controller$getSoundSlot() {
+        return sound_controller$soundSlot;
+    }
+
+    @Override
+    public void sound_controller$setSoundSlot(int slot) {
+        sound_controller$soundSlot = slot;
+    }
+
+    @Override
+    public Object sound_controller$getCacheEntry() {
+        return sound_controller$cacheEntry;
+    }
+
+    @Override
+    public void sound_controller$setCacheEntry(Object entry) {
+        sound_controller$cacheEntry = entry;
+    }
+
+    @Override
+    public Object sound_controller$getStreamSource() {
+        return sound_controller$streamSource;
+    }
+
+    @Override
+    public void sound_controller$setStreamSource(Object source) {
+        sound_controller$streamSource = source;
+    }
+
+    @Inject(method = "getDuration", at = @At("HEAD"), cancellable = true)
+    private void sound_controller$reportStandInDuration(CallbackInfoReturnable<Float> cir) {
+        SoundBuffer buffer = (SoundBuffer) (Object) this;
+        float duration = -1f;
+        if (sound_controller$streamSource != null) duration = StreamingPlayback.getDuration(buffer);
+        else if (sound_controller$cacheEntry != null) duration = SoundBufferCache.getDuration(buffer);
+        if (duration >= 0f) cir.setReturnValue(duration);
+    }
+
+    @Inject(method = "dispose", at = @At("HEAD"))
+    private void sound_controller$forgetDisposedBuffer(CallbackInfo ci) {
+        SoundBuffer buffer = (SoundBuffer) (Object) this;
+        SoundBufferCache.onDisposed(buffer);
+        SoundBufferRegistry.onDisposed(buffer);
+    }
+}
@@ -2,9 +2,13 @@ package dev.neuxs.sound_controller.mixins;
 
 import com.badlogic.gdx.Files;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector3;
 import de.pottgames.tuningfork.SoundBuffer;
 import dev.neuxs.sound_controller.Mod;
-import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.audio.MusicPrefetcher;
+import dev.neuxs.sound_controller.audio.PlaybackGate;
+import dev.neuxs.sound_controller.audio.SoundBufferCache;
+import dev.neuxs.sound_controller.audio.StreamingPlayback;
 import dev.neuxs.sound_controller.utils.SoundHelper;
 import finalforeach.cosmicreach.audio.SoundManager;
 import finalforeach.cosmicreach.util.Identifier;
@@ -12,67 +16,137 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.ModifyVariable;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.util.Map;
-
 @SuppressWarnings("unused")
 @Mixin(value = SoundManager.class, priority = 1100)
 public abstract class SoundManagerMixin {
 
+    @Inject(
+            method = "loadSound(Lcom/badlogic/gdx/files/FileHandle;)Lde/pottgames/tuningfork/SoundBuffer;",
+            at = @At("HEAD"),
+            cancellable = true,
+            remap = false
+    )
+    private void sound_controller$substituteLoadedSoundBuffer(FileHandle loadAsset, CallbackInfoReturnable<SoundBuffer> cir) {
+        if (loadAsset == null) return;
+
+        SoundBuffer substitute = MusicPrefetcher.take(loadAsset);
+        if (substitute == null) {
+            Identifier soundId = deduceSoundId(loadAsset, false);
+            if (soundId != null) substitute = StreamingPlayback.createPlaceholder(soundId.toString(), loadAsset);
+        }
+        if (substitute == null) substitute = SoundBufferCache.load(loadAsset);
+        if (substitute == null) return;
+
+        // Returning early skips the RETURN hook below, so the buffer is registered here
+        registerLoadedSoundBuffer(loadAsset, substitute);
+        cir.setReturnValue(substitute);
+    }
+
     @Inject(
             method = "loadSound(Lcom/badlogic/gdx/files/FileHandle;)Lde/pottgames/tuningfork/SoundBuffer;",
             at = @At("RETURN"),
             remap = false
     )
     private void sound_controller$captureLoadedSoundBuffer(FileHandle loadAsset, CallbackInfoReturnable<SoundBuffer> cir) {
-        SoundBuffer returnedSoundBuffer = cir.getReturnValue();
+        registerLoadedSoundBuffer(loadAsset, cir.getReturnValue());
+    }
 
+    private void registerLoadedSoundBuffer(FileHandle loadAsset, SoundBuffer returnedSoundBuffer) {
         if (loadAsset == null || returnedSoundBuffer == null) {
             Mod.LOGGER.warn("Cannot register sounds, FileHandle or returned SoundBuffer is null. FileHandle: {}", loadAsset);
             return;
         }
 
-        Identifier soundId = null;
         try {
-            String path = loadAsset.path().replace("\\", "/");
-            String potentialIdStr;
-
-            if (path.contains("assets/")) {
-                potentialIdStr = path.substring(path.indexOf("assets/") + "assets/".length());
-                int firstSlash = potentialIdStr.indexOf('/');
-                if (firstSlash != -1) {
-                    String namespace = potentialIdStr.substring(0, firstSlash);
-                    String name = potentialIdStr.substring(firstSlash + 1);
-                    soundId = Identifier.of(namespace, name);
-                } else {
-                    Mod.LOGGER.warn("Ambiguous classpath path: {}", path);
-                }
-            } else if (path.contains("/mods/")) {
-                potentialIdStr = path.substring(path.indexOf("/mods/") + "/mods/".length());
-                int firstSlash = potentialIdStr.indexOf('/');
-                if (firstSlash != -1) {
-                    String namespace = potentialIdStr.substring(0, firstSlash);
-                    String name = potentialIdStr.substring(firstSlash + 1);
-                    soundId = Identifier.of(namespace, name);
-                } else {
-                    Mod.LOGGER.warn("Ambiguous mod path: {}", path);
-                }
-            } else if (loadAsset.type() == Files.FileType.Internal || path.startsWith("base/")) {
-                potentialIdStr = path.startsWith("base/") ? path.substring("base/".length()) : path;
-                soundId = Identifier.of("base", potentialIdStr);
-            } else {
-                Mod.LOGGER.warn("Unrecognized FileHandle path type/structure: {}", path);
-            }
-
-
-            if (soundId != null) SoundHelper.registerSoundBuffer(soundId, returnedSoundBuffer);
-            else Mod.LOGGER.warn("Intercepted loadSound() for SoundBuffer, but failed to deduce Identifier from path: {}", loadAsset.path());
+            Identifier soundId = deduceSoundId(loadAsset, true);
+            if (soundId != null) {
+                SoundHelper.registerSoundBuffer(soundId, returnedSoundBuffer);
+                MusicPrefetcher.onTrackLoaded(soundId.toString());
+            } else Mod.LOGGER.warn("Intercepted loadSound() for SoundBuffer, but failed to deduce Identifier from path: {}", loadAsset.path());
         } catch (Exception e) {
             Mod.LOGGER.error("Error occurred while deducing Identifier or registering sound for {}: {}", loadAsset.path(), e.getMessage(), e);
         }
     }
 
+    private Identifier deduceSoundId(FileHandle loadAsset, boolean logFailures) {
+        Identifier soundId = null;
+        String path = loadAsset.path().replace("\\", "/");
+        String potentialIdStr;
+
+        if (path.contains("assets/")) {
+            potentialIdStr = path.substring(path.indexOf("assets/") + "assets/".length());
+            int firstSlash = potentialIdStr.indexOf('/');
+            if (firstSlash != -1) {
+                String namespace = potentialIdStr.substring(0, firstSlash);
+                String name = potentialIdStr.substring(firstSlash + 1);
+                soundId = Identifier.of(namespace, name);
+            } else if (logFailures) {
+                Mod.LOGGER.warn("Ambiguous classpath path: {}", path);
+            }
+        } else if (path.contains("/mods/")) {
+            potentialIdStr = path.substring(path.indexOf("/mods/") + "/mods/".length());
+            int firstSlash = potentialIdStr.indexOf('/');
+            if (firstSlash != -1) {
+                String namespace = potentialIdStr.substring(0, firstSlash);
+                String name = potentialIdStr.substring(firstSlash + 1);
+                soundId = Identifier.of(namespace, name);
+            } else if (logFailures) {
+                Mod.LOGGER.warn("Ambiguous mod path: {}", path);
+            }
+        } else if (loadAsset.type() == Files.FileType.Internal || path.startsWith("base/")) {
+            potentialIdStr = path.startsWith("base/") ? path.substring("base/".length()) : path;
+            soundId = Identifier.of("base", potentialIdStr);
+        } else if (logFailures) {
+            Mod.LOGGER.warn("Unrecognized FileHandle path type/structure: {}", path);
+        }
+        return soundId;
+    }
+
+    // The gates are declared before the volume modifiers so they run first and see the caller's unscaled volume,
+    // which is what coalesced plays are replayed with
+    @Inject(
+            method = "playSound(Lde/pottgames/tuningfork/SoundBuffer;FFF)V",
+            at = @At("HEAD"),
+            cancellable = true,
+            remap = false
+    )
+    private void sound_controller$gatePlaySoundBufferPan(SoundBuffer sound, float volume, float pitch, float pan, CallbackInfo ci) {
+        if (!PlaybackGate.admit(sound, volume, pitch, pan, true)) ci.cancel();
+    }
+
+    @Inject(
+            method = "playSound(Lde/pottgames/tuningfork/SoundBuffer;FF)V",
+            at = @At("HEAD"),
+            cancellable = true,
+            remap = false
+    )
+    private void sound_controller$gatePlaySoundBufferNoPan(SoundBuffer sound, float volume, float pitch, CallbackInfo ci) {
+        if (!PlaybackGate.admit(sound, volume, pitch, 0.0f, false)) ci.cancel();
+    }
+
+    @Inject(
+            method = "playSound3D(Lde/pottgames/tuningfork/SoundBuffer;Lcom/badlogic/gdx/math/Vector3;FF)V",
+            at = @At("HEAD"),
+            cancellable = true,
+            remap = false
+    )
+    private void sound_controller$gatePlaySound3DBufferVolPitch(SoundBuffer sound, Vector3 position, float volume, float pitch, CallbackInfo ci) {
+        if (!PlaybackGate.admit3D(sound, position, volume, pitch, true)) ci.cancel();
+    }
+
+    @Inject(
+            method = "playSound3D(Lde/pottgames/tuningfork/SoundBuffer;Lcom/badlogic/gdx/math/Vector3;F)V",
+            at = @At("HEAD"),
+            cancellable = true,
+            remap = false
+    )
+    private void sound_controller$gatePlaySound3DBufferVol(SoundBuffer sound, Vector3 position, float volume, CallbackInfo ci) {
+        if (!PlaybackGate.admit3D(sound, position, volume, 1.0f, false)) ci.cancel();
+    }
+
     @ModifyVariable(
             method = "playSound(Lde/pottgames/tuningfork/SoundBuffer;FFF)V",
             at = @At("HEAD"),
@@ -80,9 +154,7 @@ public abstract class SoundManagerMixin {
             ordinal = 0
     )
     private float sound_controller$modifyPlaySoundBufferPanVolumeArg(float originalVolume, SoundBuffer sound) {
-        String context = "playSound(SB,FFF)";
-        float modMultiplier = getCustomVolumeMultiplier(sound, context);
-        return originalVolume * modMultiplier;
+        return originalVolume * getCustomVolumeMultiplier(sound);
     }
 
     @ModifyVariable(
@@ -92,9 +164,7 @@ public abstract class SoundManagerMixin {
             ordinal = 0
     )
     private float sound_controller$modifyPlaySoundBufferNoPanVolumeArg(float originalVolume, SoundBuffer sound) {
-        String context = "playSound(SB,FF)";
-        float modMultiplier = getCustomVolumeMultiplier(sound, context);
-        return originalVolume * modMultiplier;
+        return originalVolume * getCustomVolumeMultiplier(sound);
     }
 
     @ModifyVariable(
@@ -104,9 +174,7 @@ public abstract class SoundManagerMixin {
             ordinal = 0
     )
     private float sound_controller$modifyPlaySound3DBufferVolPitchVolumeArg(float originalVolume, SoundBuffer sound) {
-        String context = "playSound3D(SB,V3,FF)";
-        float modMultiplier = getCustomVolumeMultiplier(sound, context);
-        return originalVolume * modMultiplier;
+        return originalVolume * getCustomVolumeMultiplier(sound);
     }
 
     @ModifyVariable(
@@ -116,25 +184,50 @@ public abstract class SoundManagerMixin {
             ordinal = 0
     )
     private float sound_controller$modifyPlaySound3DBufferVolVolumeArg(float originalVolume, SoundBuffer sound) {
-        String context = "playSound3D(SB,V3,F)";
-        float modMultiplier = getCustomVolumeMultiplier(sound, context);
-        return originalVolume * modMultiplier;
+        return originalVolume * getCustomVolumeMultiplier(sound);
     }
 
-    private float getCustomVolumeMultiplier(SoundBuffer sound, String context) {
-        Map<SoundBuffer, Identifier> map = SoundHelper.getSoundBufferMap();
+    @ModifyVariable(
+            method = "playSound(Lde/pottgames/tuningfork/SoundBuffer;FFF)V",
+            at = @At("HEAD"),
+            argsOnly = true,
+            ordinal = 0
+    )
+    private SoundBuffer sound_controller$resolvePlaySoundBufferPanBuffer(SoundBuffer sound) {
+        return SoundBufferCache.resolve(sound);
+    }
 
-        if (map.isEmpty()) {
-            Mod.LOGGER.warn("SoundBuffer map is currently empty. Context: {}", context);
-            return 1.0f;
-        }
+    @ModifyVariable(
+            method = "playSound(Lde/pottgames/tuningfork/SoundBuffer;FF)V",
+            at = @At("HEAD"),
+            argsOnly = true,
+            ordinal = 0
+    )
+    private SoundBuffer sound_controller$resolvePlaySoundBufferNoPanBuffer(SoundBuffer sound) {
+        return SoundBufferCache.resolve(sound);
+    }
+
+    @ModifyVariable(
+            method = "playSound3D(Lde/pottgames/tuningfork/SoundBuffer;Lcom/badlogic/gdx/math/Vector3;FF)V",
+            at = @At("HEAD"),
+            argsOnly = true,
+            ordinal = 0
+    )
+    private SoundBuffer sound_controller$resolvePlaySound3DBufferVolPitchBuffer(SoundBuffer sound) {
+        return SoundBufferCache.resolve(sound);
+    }
 
-        Identifier soundId = map.get(sound);
+    @ModifyVariable(
+            method = "playSound3D(Lde/pottgames/tuningfork/SoundBuffer;Lcom/badlogic/gdx/math/Vector3;F)V",
+            at = @At("HEAD"),
+            argsOnly = true,
+            ordinal = 0
+    )
+    private SoundBuffer sound_controller$resolvePlaySound3DBufferVolBuffer(SoundBuffer sound) {
+        return SoundBufferCache.resolve(sound);
+    }
 
-        if (soundId != null) return SettingsManager.getVolume(soundId.toString());
-        else {
-            Mod.LOGGER.warn("Identifier NOT FOUND in map for SoundBuffer instance: {}. Returning default 1.0f. Context: {}", sound, context);
-            return 1.0f;
-        }
+    private float getCustomVolumeMultiplier(SoundBuffer sound) {
+        return PlaybackGate.getVolumeMultiplier(sound);
     }
 }
@@ -0,0 +1,99 @@
+package dev.neuxs.sound_controller.settings;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+class ConfigFile {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type SOUND_VOLUME_MAP_TYPE = new TypeToken<Map<String, Float>>() {}.getType();
+    private static final String VOLUMES_KEY = "volumes";
+    // Format 2 stores only customized volumes; older files list every sound
+    static final int SPARSE_FORMAT = 2;
+
+    int format = 0;
+    Map<String, Float> volumes;
+    PlaybackOptions playback;
+    Map<String, SoundPolicy> policies;
+    Map<String, Float> groups;
+    List<VolumeRule> rules;
+    String activeProfile;
+    // Named alternatives to the top-level volumes and groups, which form the "default" profile
+    Map<String, ProfileSection> profiles;
+    transient boolean legacyFormat = false;
+
+    static ConfigFile parse(byte[] content) {
+        JsonElement root = JsonParser.parseString(new String(content, StandardCharsets.UTF_8));
+        if (root == null || root.isJsonNull()) return null;
+        if (!root.isJsonObject()) throw new JsonSyntaxException("Expected a JSON object at the root of the config");
+
+        JsonObject object = root.getAsJsonObject();
+        ConfigFile file;
+        if (object.has(VOLUMES_KEY)) file = GSON.fromJson(object, ConfigFile.class);
+        else {
+            // Files written before playback options existed are a flat sound ID -> volume map
+            file = new ConfigFile();
+            file.volumes = GSON.fromJson(object, SOUND_VOLUME_MAP_TYPE);
+            file.legacyFormat = true;
+        }
+
+        if (file.volumes == null) file.volumes = new TreeMap<>();
+        if (file.policies == null) file.policies = new TreeMap<>();
+        if (file.groups == null) file.groups = new TreeMap<>();
+        if (file.rules == null) file.rules = new ArrayList<>();
+        if (file.activeProfile == null || file.activeProfile.isBlank()) file.activeProfile = SoundConfig.DEFAULT_PROFILE;
+        if (file.profiles == null) file.profiles = new TreeMap<>();
+        file.profiles.values().removeIf(Objects::isNull);
+        for (ProfileSection section : file.profiles.values()) {
+            if (section.volumes == null) section.volumes = new TreeMap<>();
+            if (section.groups == null) section.groups = new TreeMap<>();
+        }
+        file.playback = file.playback != null ? file.playback.normalized() : PlaybackOptions.DEFAULT;
+        return file;
+    }
+
+    // The snapshot wins over the stored copy of its own profile, which may be older
+    static byte[] serialize(SoundConfig config, Map<String, SoundConfig> profileConfigs) {
+        Map<String, SoundConfig> allProfiles = new TreeMap<>(profileConfigs);
+        allProfiles.put(config.getProfileName(), config);
+        SoundConfig defaultProfile = allProfiles.remove(SoundConfig.DEFAULT_PROFILE);
+
+        ConfigFile file = new ConfigFile();
+        file.volumes = defaultProfile != null ? defaultProfile.toMap() : new TreeMap<>();
+        Map<String, Float> defaultGroups = defaultProfile != null ? defaultProfile.getGroupVolumes() : Map.of();
+        file.groups = defaultGroups.isEmpty() ? null : defaultGroups;
+        file.activeProfile = SoundConfig.DEFAULT_PROFILE.equals(config.getProfileName()) ? null : config.getProfileName();
+        if (!allProfiles.isEmpty()) {
+            file.profiles = new TreeMap<>();
+            for (Map.Entry<String, SoundConfig> entry : allProfiles.entrySet()) {
+                ProfileSection section = new ProfileSection();
+                section.volumes = entry.getValue().toMap();
+                section.groups = entry.getValue().getGroupVolumes().isEmpty() ? null : entry.getValue().getGroupVolumes();
+                file.profiles.put(entry.getKey(), section);
+            }
+        }
+        file.format = SPARSE_FORMAT;
+        file.playback = config.getPlaybackOptions();
+        // Left out entirely when no sound is restricted, which keeps the common file minimal
+        file.policies = config.getPolicies().isEmpty() ? null : config.getPolicies();
+        file.rules = config.getRules().isEmpty() ? null : config.getRules();
+        return GSON.toJson(file).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static final class ProfileSection {
+        Map<String, Float> volumes;
+        Map<String, Float> groups;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.neuxs.sound_controller.settings;
+
+import dev.neuxs.sound_controller.Mod;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+class ConfigPersistence {
+    private static final long QUIET_PERIOD_MS = 750;
+
+    private final Consumer<SoundConfig> writer;
+    private final AtomicReference<SoundConfig> pendingConfig = new AtomicReference<>();
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService flushExecutor;
+    private ScheduledFuture<?> scheduledFlush = null;
+    private long lastWrittenVersion = -1;
+
+    ConfigPersistence(Consumer<SoundConfig> writer) {
+        this.writer = writer;
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true);
+            t.setName("SoundController-ConfigWriter");
+            return t;
+        });
+
+        Thread shutdownFlush = new Thread(this::flush, "SoundController-ConfigFlush");
+        try { Runtime.getRuntime().addShutdownHook(shutdownFlush); }
+        catch (IllegalStateException e) { Mod.LOGGER.warn("Could not register config flush on shutdown: {}", e.getMessage()); }
+    }
+
+    void requestSave(SoundConfig config) {
+        if (config == null) return;
+
+        pendingConfig.accumulateAndGet(config, (pending, offered) ->
+                pending == null || offered.getVersion() >= pending.getVersion() ? offered : pending);
+
+        synchronized (this) {
+            if (scheduledFlush != null) scheduledFlush.cancel(false);
+            scheduledFlush = flushExecutor.schedule(this::flush, QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void saveNow(SoundConfig config) {
+        if (config == null) return;
+
+        writesInFlight.incrementAndGet();
+        try {
+            synchronized (writeLock) {
+                writer.accept(config);
+                lastWrittenVersion = Math.max(lastWrittenVersion, config.getVersion());
+            }
+        } finally {
+            writesInFlight.decrementAndGet();
+        }
+    }
+
+    void flush() {
+        writesInFlight.incrementAndGet();
+        try {
+            SoundConfig config = pendingConfig.getAndSet(null);
+            if (config == null) return;
+
+            synchronized (writeLock) {
+                // A concurrent flush may already have written a newer snapshot
+                if (config.getVersion() <= lastWrittenVersion) return;
+                writer.accept(config);
+                lastWrittenVersion = config.getVersion();
+            }
+        } catch (Exception e) {
+            Mod.LOGGER.error("Failed to flush pending sound config: {}", e.getMessage(), e);
+        } finally {
+            writesInFlight.decrementAndGet();
+        }
+    }
+
+    long getLastWrittenVersion() {
+        synchronized (writeLock) {
+            return lastWrittenVersion;
+        }
+    }
+
+    // An external reload supersedes every older snapshot: writing one would put the pre-reload state back over the
+    // user's edit, and the self-write fingerprint would stop the watcher from ever noticing
+    void supersede(SoundConfig reloaded, long writtenBeforeRead) {
+        long version = reloaded.getVersion();
+        pendingConfig.updateAndGet(pending -> pending != null && pending.getVersion() < version ? null : pending);
+
+        boolean staleWrite;
+        synchronized (writeLock) {
+            // A flush that finished after the file was read has already overwritten it with older state
+            staleWrite = lastWrittenVersion != writtenBeforeRead;
+            // A flush that took its snapshot before the drop above skips it once it gets the lock
+            lastWrittenVersion = Math.max(lastWrittenVersion, version - 1);
+        }
+        if (staleWrite) requestSave(reloaded);
+    }
+
+    boolean hasPendingWrites() {
+        return pendingConfig.get() != null || writesInFlight.get() > 0;
+    }
+}
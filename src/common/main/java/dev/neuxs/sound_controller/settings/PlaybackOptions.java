@@ -0,0 +1,115 @@
+package dev.neuxs.sound_controller.settings;
+
+import java.util.Objects;
+
+public final class PlaybackOptions {
+    static final PlaybackOptions DEFAULT = new PlaybackOptions();
+
+    private float mutedThreshold = 0.0f;
+    private boolean coalesceSameFrame = false;
+    private float coalescedMaxVolume = 1.0f;
+    // 3D plays whose estimated gain, using the engine's own distance attenuation, falls below this are dropped;
+    // 0 disables culling. The default is -60 dB, well under anything the mixer would make audible.
+    private float cullThreshold = 0.001f;
+    // Concurrent voices let through SoundManager; 0 disables the budget
+    private int maxVoices = 0;
+    // Plays made off the main thread are gated where they are made, and only admitted ones are queued for the main thread
+    private boolean asyncDispatch = false;
+    // Decoded buffers beyond this many MB are evicted least-recently-played first; 0 keeps everything resident
+    private int bufferCacheBudgetMb = 0;
+    // Decodes the next music track in the background when only one unmuted track can play next. Off by default: with
+    // several unmuted tracks the next one can't be known, so in a normal install it would never fire.
+    private boolean musicPrefetch = false;
+    // Music tracks, and files larger than the threshold (0 disables it), are streamed instead of decoded up front
+    private boolean streamMusic = false;
+    private int streamThresholdKb = 0;
+
+    private PlaybackOptions() {}
+
+    public float getMutedThreshold() {
+        return mutedThreshold;
+    }
+
+    public boolean isCoalesceSameFrame() {
+        return coalesceSameFrame;
+    }
+
+    public float getCoalescedMaxVolume() {
+        return coalescedMaxVolume;
+    }
+
+    public float getCullThreshold() {
+        return cullThreshold;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    public boolean isAsyncDispatch() {
+        return asyncDispatch;
+    }
+
+    public int getBufferCacheBudgetMb() {
+        return bufferCacheBudgetMb;
+    }
+
+    public boolean isMusicPrefetch() {
+        return musicPrefetch;
+    }
+
+    public boolean isStreamMusic() {
+        return streamMusic;
+    }
+
+    public int getStreamThresholdKb() {
+        return streamThresholdKb;
+    }
+
+    PlaybackOptions normalized() {
+        PlaybackOptions normalized = copy();
+        normalized.mutedThreshold = Math.max(0.0f, Math.min(1.0f, mutedThreshold));
+        normalized.coalescedMaxVolume = Math.max(0.0f, coalescedMaxVolume);
+        normalized.cullThreshold = Math.max(0.0f, Math.min(1.0f, cullThreshold));
+        normalized.maxVoices = Math.max(0, maxVoices);
+        normalized.bufferCacheBudgetMb = Math.max(0, bufferCacheBudgetMb);
+        normalized.streamThresholdKb = Math.max(0, streamThresholdKb);
+        return normalized.equals(this) ? this : normalized;
+    }
+
+    private PlaybackOptions copy() {
+        PlaybackOptions copy = new PlaybackOptions();
+        copy.mutedThreshold = mutedThreshold;
+        copy.coalesceSameFrame = coalesceSameFrame;
+        copy.coalescedMaxVolume = coalescedMaxVolume;
+        copy.cullThreshold = cullThreshold;
+        copy.maxVoices = maxVoices;
+        copy.asyncDispatch = asyncDispatch;
+        copy.bufferCacheBudgetMb = bufferCacheBudgetMb;
+        copy.musicPrefetch = musicPrefetch;
+        copy.streamMusic = streamMusic;
+        copy.streamThresholdKb = streamThresholdKb;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PlaybackOptions other
+                && Float.compare(mutedThreshold, other.mutedThreshold) == 0
+                && coalesceSameFrame == other.coalesceSameFrame
+                && Float.compare(coalescedMaxVolume, other.coalescedMaxVolume) == 0
+                && Float.compare(cullThreshold, other.cullThreshold) == 0
+                && maxVoices == other.maxVoices
+                && asyncDispatch == other.asyncDispatch
+                && bufferCacheBudgetMb == other.bufferCacheBudgetMb
+                && musicPrefetch == other.musicPrefetch
+                && streamMusic == other.streamMusic
+                && streamThresholdKb == other.streamThresholdKb;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mutedThreshold, coalesceSameFrame, coalescedMaxVolume, cullThreshold,
+                maxVoices, asyncDispatch, bufferCacheBudgetMb, musicPrefetch, streamMusic, streamThresholdKb);
+    }
+}
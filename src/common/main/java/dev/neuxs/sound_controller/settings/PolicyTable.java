@@ -0,0 +1,61 @@
+package dev.neuxs.sound_controller.settings;
+
+import dev.neuxs.sound_controller.utils.SoundSlots;
+
+import java.util.Arrays;
+
+public class PolicyTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static volatile SoundPolicy[] policies = newTable(INITIAL_CAPACITY);
+    private static volatile SoundConfig boundConfig = null;
+    private static final Object tableLock = new Object();
+
+    public static SoundPolicy get(int slot) {
+        SoundPolicy[] table = policies;
+        return slot < table.length ? table[slot] : SoundPolicy.NONE;
+    }
+
+    public static void onSlotAssigned(int slot, String soundId) {
+        synchronized (tableLock) {
+            SoundConfig config = boundConfig;
+            store(slot, config != null ? config.getPolicy(soundId) : SoundPolicy.NONE);
+        }
+    }
+
+    static void bind(SoundConfig config) {
+        synchronized (tableLock) {
+            SoundConfig bound = boundConfig;
+            if (bound != null && config != null && bound.getVersion() > config.getVersion()) config = bound;
+            boundConfig = config;
+            int slotCount = SoundSlots.getSlotCount();
+            SoundPolicy[] table = newTable(Math.max(policies.length, slotCount));
+            if (config != null && !config.getPolicies().isEmpty()) {
+                for (int slot = SoundSlots.UNASSIGNED + 1; slot < slotCount; slot++) {
+                    String soundId = SoundSlots.idOf(slot);
+                    if (soundId != null) table[slot] = config.getPolicy(soundId);
+                }
+            }
+            policies = table;
+        }
+    }
+
+    private static void store(int slot, SoundPolicy policy) {
+        SoundPolicy[] table = policies;
+        if (slot >= table.length) {
+            int newLength = table.length;
+            while (newLength <= slot) newLength *= 2;
+            SoundPolicy[] grown = Arrays.copyOf(table, newLength);
+            Arrays.fill(grown, table.length, newLength, SoundPolicy.NONE);
+            table = grown;
+        }
+        table[slot] = policy;
+        policies = table;
+    }
+
+    private static SoundPolicy[] newTable(int length) {
+        SoundPolicy[] table = new SoundPolicy[length];
+        Arrays.fill(table, SoundPolicy.NONE);
+        return table;
+    }
+}
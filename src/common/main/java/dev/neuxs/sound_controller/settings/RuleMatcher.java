@@ -0,0 +1,502 @@
+package dev.neuxs.sound_controller.settings;
+
+import dev.neuxs.sound_controller.Mod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Every volume rule compiled into one NFA, walked through a lazily built DFA so matching an ID costs
+// one table step per character no matter how many rules there are. When several rules match, the last one wins.
+final class RuleMatcher {
+    static final RuleMatcher EMPTY = new RuleMatcher(Collections.emptyList(), new Nfa());
+
+    private static final int NO_MATCH = -1;
+    private static final int UNKNOWN = -1;
+    private static final int DEAD_STATE = 0;
+    private static final int ASCII_LIMIT = 128;
+    // Caches are dropped and rebuilt past this, which bounds memory for pathological patterns
+    private static final int MAX_DFA_STATES = 1 << 16;
+
+    private final List<VolumeRule> rules;
+    private final float[] ruleVolumes;
+    private final Nfa nfa;
+
+    private final Map<BitSet, Integer> dfaIndex = new HashMap<>();
+    private final List<BitSet> dfaSets = new ArrayList<>();
+    private final List<int[]> dfaAsciiNext = new ArrayList<>();
+    private final List<Map<Character, Integer>> dfaOtherNext = new ArrayList<>();
+    private final List<Integer> dfaAccept = new ArrayList<>();
+    private int startState;
+
+    private RuleMatcher(List<VolumeRule> rules, Nfa nfa) {
+        this.rules = rules;
+        this.nfa = nfa;
+        this.ruleVolumes = new float[rules.size()];
+        for (int i = 0; i < rules.size(); i++) ruleVolumes[i] = rules.get(i).getVolume();
+        resetDfa();
+    }
+
+    static RuleMatcher compile(List<VolumeRule> source) {
+        if (source == null || source.isEmpty()) return EMPTY;
+
+        List<VolumeRule> accepted = new ArrayList<>();
+        Nfa nfa = new Nfa();
+        List<Integer> starts = new ArrayList<>();
+        for (VolumeRule rule : source) {
+            if (rule == null || rule.getMatch() == null) continue;
+            try {
+                String match = rule.getMatch();
+                Fragment fragment = match.startsWith(VolumeRule.REGEX_PREFIX)
+                        ? new RegexParser(nfa, match.substring(VolumeRule.REGEX_PREFIX.length())).parse()
+                        : new GlobParser(nfa, match).parse();
+                nfa.acceptRule[fragment.end] = accepted.size();
+                starts.add(fragment.start);
+                accepted.add(VolumeRule.of(match, Math.max(0.0f, Math.min(1.0f, rule.getVolume()))));
+            } catch (IllegalArgumentException e) {
+                Mod.LOGGER.warn("Ignoring volume rule '{}': {}", rule.getMatch(), e.getMessage());
+            }
+        }
+        if (accepted.isEmpty()) return EMPTY;
+
+        nfa.start = nfa.newState();
+        for (int start : starts) nfa.addEpsilon(nfa.start, start);
+        return new RuleMatcher(Collections.unmodifiableList(accepted), nfa);
+    }
+
+    List<VolumeRule> getRules() {
+        return rules;
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    float resolve(String soundId, float fallback) {
+        if (rules.isEmpty()) return fallback;
+        int rule = match(soundId);
+        return rule == NO_MATCH ? fallback : ruleVolumes[rule];
+    }
+
+    // Called when an ID is registered or the rules change, never per play
+    synchronized int match(String soundId) {
+        if (rules.isEmpty()) return NO_MATCH;
+        if (dfaSets.size() > MAX_DFA_STATES) resetDfa();
+
+        int state = startState;
+        for (int i = 0; i < soundId.length() && state != DEAD_STATE; i++) state = step(state, soundId.charAt(i));
+        return dfaAccept.get(state);
+    }
+
+    private int step(int state, char c) {
+        if (c < ASCII_LIMIT) {
+            int[] next = dfaAsciiNext.get(state);
+            if (next[c] == UNKNOWN) next[c] = computeStep(state, c);
+            return next[c];
+        }
+        return dfaOtherNext.get(state).computeIfAbsent(c, key -> computeStep(state, key));
+    }
+
+    private int computeStep(int state, char c) {
+        BitSet current = dfaSets.get(state);
+        BitSet next = new BitSet();
+        for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+            int[] ranges = nfa.ranges[s];
+            if (ranges != null && CharRanges.contains(ranges, c)) next.set(nfa.target[s]);
+        }
+        return intern(nfa.closure(next));
+    }
+
+    private int intern(BitSet set) {
+        Integer existing = dfaIndex.get(set);
+        if (existing != null) return existing;
+
+        int id = dfaSets.size();
+        int accept = NO_MATCH;
+        for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) accept = Math.max(accept, nfa.acceptRule[s]);
+
+        int[] asciiNext = new int[ASCII_LIMIT];
+        Arrays.fill(asciiNext, set.isEmpty() ? DEAD_STATE : UNKNOWN);
+        dfaIndex.put(set, id);
+        dfaSets.add(set);
+        dfaAsciiNext.add(asciiNext);
+        dfaOtherNext.add(new HashMap<>());
+        dfaAccept.add(accept);
+        return id;
+    }
+
+    private void resetDfa() {
+        dfaIndex.clear();
+        dfaSets.clear();
+        dfaAsciiNext.clear();
+        dfaOtherNext.clear();
+        dfaAccept.clear();
+        intern(new BitSet());
+        if (nfa.start < 0) {
+            startState = DEAD_STATE;
+            return;
+        }
+        BitSet start = new BitSet();
+        start.set(nfa.start);
+        startState = intern(nfa.closure(start));
+    }
+
+    private static final class Nfa {
+        private int start = -1;
+        private int size = 0;
+        private int[][] ranges = new int[64][];
+        private int[] target = new int[64];
+        private int[] acceptRule = new int[64];
+        private final List<List<Integer>> epsilons = new ArrayList<>();
+        private int[] closureStack = new int[0];
+
+        private int newState() {
+            if (size == target.length) {
+                ranges = Arrays.copyOf(ranges, size * 2);
+                target = Arrays.copyOf(target, size * 2);
+                acceptRule = Arrays.copyOf(acceptRule, size * 2);
+            }
+            target[size] = -1;
+            acceptRule[size] = NO_MATCH;
+            epsilons.add(null);
+            return size++;
+        }
+
+        private void addEpsilon(int from, int to) {
+            List<Integer> out = epsilons.get(from);
+            if (out == null) epsilons.set(from, out = new ArrayList<>(2));
+            out.add(to);
+        }
+
+        // Only reached under the matcher's lock, so one scratch stack is shared
+        private BitSet closure(BitSet states) {
+            if (closureStack.length < size) closureStack = new int[size];
+            int[] stack = closureStack;
+            int top = 0;
+            for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) stack[top++] = s;
+            while (top > 0) {
+                List<Integer> out = epsilons.get(stack[--top]);
+                if (out == null) continue;
+                for (int next : out) {
+                    if (states.get(next)) continue;
+                    states.set(next);
+                    stack[top++] = next;
+                }
+            }
+            return states;
+        }
+
+        private Fragment atom(int[] charRanges) {
+            int s = newState();
+            int e = newState();
+            ranges[s] = charRanges;
+            target[s] = e;
+            return new Fragment(s, e);
+        }
+
+        private Fragment empty() {
+            int s = newState();
+            int e = newState();
+            addEpsilon(s, e);
+            return new Fragment(s, e);
+        }
+
+        private Fragment concat(Fragment a, Fragment b) {
+            addEpsilon(a.end, b.start);
+            return new Fragment(a.start, b.end);
+        }
+
+        private Fragment alternate(Fragment a, Fragment b) {
+            int s = newState();
+            int e = newState();
+            addEpsilon(s, a.start);
+            addEpsilon(s, b.start);
+            addEpsilon(a.end, e);
+            addEpsilon(b.end, e);
+            return new Fragment(s, e);
+        }
+
+        private Fragment repeat(Fragment a, boolean allowZero, boolean allowMany) {
+            int s = newState();
+            int e = newState();
+            addEpsilon(s, a.start);
+            if (allowZero) addEpsilon(s, e);
+            if (allowMany) addEpsilon(a.end, a.start);
+            addEpsilon(a.end, e);
+            return new Fragment(s, e);
+        }
+    }
+
+    private static final class Fragment {
+        private final int start;
+        private final int end;
+
+        private Fragment(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Sorted, non-overlapping inclusive [low, high] pairs
+    private static final class CharRanges {
+        private static final int[] ANY = {Character.MIN_VALUE, Character.MAX_VALUE};
+        private static final int[] NOT_SLASH = {Character.MIN_VALUE, '/' - 1, '/' + 1, Character.MAX_VALUE};
+        private static final int[] DIGIT = {'0', '9'};
+        private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+
+        private static int[] single(char c) {
+            return new int[]{c, c};
+        }
+
+        private static boolean contains(int[] ranges, char c) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c < ranges[i]) return false;
+                if (c <= ranges[i + 1]) return true;
+            }
+            return false;
+        }
+
+        private static int[] negate(int[] ranges) {
+            List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < ranges.length; i += 2) pairs.add(new int[]{ranges[i], ranges[i + 1]});
+            return normalize(pairs, true);
+        }
+
+        private static int[] normalize(List<int[]> pairs, boolean negate) {
+            pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+            List<int[]> merged = new ArrayList<>();
+            for (int[] pair : pairs) {
+                int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && pair[0] <= last[1] + 1) last[1] = Math.max(last[1], pair[1]);
+                else merged.add(new int[]{pair[0], pair[1]});
+            }
+
+            List<int[]> result = merged;
+            if (negate) {
+                result = new ArrayList<>();
+                int next = Character.MIN_VALUE;
+                for (int[] pair : merged) {
+                    if (pair[0] > next) result.add(new int[]{next, pair[0] - 1});
+                    next = pair[1] + 1;
+                }
+                if (next <= Character.MAX_VALUE) result.add(new int[]{next, Character.MAX_VALUE});
+            }
+
+            int[] flat = new int[result.size() * 2];
+            for (int i = 0; i < result.size(); i++) {
+                flat[2 * i] = result.get(i)[0];
+                flat[2 * i + 1] = result.get(i)[1];
+            }
+            return flat;
+        }
+    }
+
+    private abstract static class PatternParser {
+        final Nfa nfa;
+        final String pattern;
+        int pos = 0;
+
+        PatternParser(Nfa nfa, String pattern) {
+            this.nfa = nfa;
+            this.pattern = pattern;
+        }
+
+        abstract Fragment parse();
+
+        boolean more() {
+            return pos < pattern.length();
+        }
+
+        char peek() {
+            return pattern.charAt(pos);
+        }
+
+        char escaped() {
+            if (!more()) throw new IllegalArgumentException("dangling escape at end of pattern");
+            return pattern.charAt(pos++);
+        }
+
+        // The ranges a backslash escape stands for, or null when it is just the escaped character
+        int[] escapeRanges(char c) {
+            return null;
+        }
+
+        // Called just past '['; accepts '^' (and '!' in globs) for negation
+        int[] charClass(boolean allowBang) {
+            boolean negate = more() && (peek() == '^' || (allowBang && peek() == '!'));
+            if (negate) pos++;
+
+            List<int[]> pairs = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (!more()) throw new IllegalArgumentException("unclosed '[' in pattern");
+                char c = pattern.charAt(pos++);
+                if (c == ']' && !first) break;
+                first = false;
+                if (c == '\\') {
+                    c = escaped();
+                    int[] ranges = escapeRanges(c);
+                    if (ranges != null) {
+                        for (int i = 0; i < ranges.length; i += 2) pairs.add(new int[]{ranges[i], ranges[i + 1]});
+                        continue;
+                    }
+                }
+
+                char high = c;
+                if (pos + 1 < pattern.length() && peek() == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    high = pattern.charAt(pos++);
+                    if (high == '\\') {
+                        high = escaped();
+                        int[] ranges = escapeRanges(high);
+                        if (ranges != null) {
+                            if (ranges.length != 2 || ranges[0] != ranges[1]) throw new IllegalArgumentException("invalid range end \\" + high);
+                            high = (char) ranges[0];
+                        }
+                    }
+                    if (high < c) throw new IllegalArgumentException("invalid range " + c + "-" + high);
+                }
+                pairs.add(new int[]{c, high});
+            }
+            return CharRanges.normalize(pairs, negate);
+        }
+    }
+
+    // "*" and "?" stay within one path segment, "**" crosses segments and "**/" also matches no folder at all
+    private static final class GlobParser extends PatternParser {
+        GlobParser(Nfa nfa, String pattern) {
+            super(nfa, pattern);
+        }
+
+        @Override
+        Fragment parse() {
+            Fragment result = nfa.empty();
+            while (more()) {
+                char c = pattern.charAt(pos++);
+                Fragment next;
+                if (c == '*') {
+                    if (more() && peek() == '*') {
+                        pos++;
+                        if (more() && peek() == '/') {
+                            pos++;
+                            Fragment folders = nfa.concat(nfa.repeat(nfa.atom(CharRanges.ANY), true, true), nfa.atom(CharRanges.single('/')));
+                            next = nfa.repeat(folders, true, false);
+                        } else next = nfa.repeat(nfa.atom(CharRanges.ANY), true, true);
+                    } else next = nfa.repeat(nfa.atom(CharRanges.NOT_SLASH), true, true);
+                } else if (c == '?') next = nfa.atom(CharRanges.NOT_SLASH);
+                else if (c == '[') next = nfa.atom(charClass(true));
+                else if (c == '\\') next = nfa.atom(CharRanges.single(escaped()));
+                else next = nfa.atom(CharRanges.single(c));
+                result = nfa.concat(result, next);
+            }
+            return result;
+        }
+    }
+
+    // A deliberately small dialect that stays a regular language: literals, '.', classes, groups, '|', '*', '+', '?'
+    private static final class RegexParser extends PatternParser {
+        RegexParser(Nfa nfa, String pattern) {
+            super(nfa, pattern);
+        }
+
+        @Override
+        Fragment parse() {
+            // Rules always match the whole ID, so explicit anchors are accepted and ignored
+            if (more() && peek() == '^') pos++;
+            Fragment result = alternation();
+            if (more()) throw new IllegalArgumentException("unexpected '" + peek() + "' at index " + pos);
+            return result;
+        }
+
+        private Fragment alternation() {
+            Fragment result = sequence();
+            while (more() && peek() == '|') {
+                pos++;
+                result = nfa.alternate(result, sequence());
+            }
+            return result;
+        }
+
+        private Fragment sequence() {
+            Fragment result = nfa.empty();
+            while (more() && peek() != '|' && peek() != ')') {
+                if (peek() == '$' && pos == pattern.length() - 1) {
+                    pos++;
+                    break;
+                }
+                result = nfa.concat(result, repetition());
+            }
+            return result;
+        }
+
+        private Fragment repetition() {
+            Fragment result = atom();
+            while (more()) {
+                char c = peek();
+                if (c == '*') result = nfa.repeat(result, true, true);
+                else if (c == '+') result = nfa.repeat(result, false, true);
+                else if (c == '?') result = nfa.repeat(result, true, false);
+                else break;
+                pos++;
+            }
+            return result;
+        }
+
+        private Fragment atom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (more() && peek() == '?') {
+                        if (pos + 1 < pattern.length() && pattern.charAt(pos + 1) == ':') pos += 2;
+                        else throw new IllegalArgumentException("unsupported group construct at index " + (pos - 1));
+                    }
+                    Fragment group = alternation();
+                    if (!more() || peek() != ')') throw new IllegalArgumentException("unclosed '(' in pattern");
+                    pos++;
+                    return group;
+                case '.':
+                    return nfa.atom(CharRanges.ANY);
+                case '[':
+                    return nfa.atom(charClass(false));
+                case '\\':
+                    char escapedChar = escaped();
+                    int[] ranges = escapeRanges(escapedChar);
+                    return nfa.atom(ranges != null ? ranges : CharRanges.single(escapedChar));
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case '}':
+                case ')':
+                    throw new IllegalArgumentException("unsupported or misplaced '" + c + "' at index " + (pos - 1));
+                default:
+                    return nfa.atom(CharRanges.single(c));
+            }
+        }
+
+        // Letter and digit escapes we don't implement are rejected rather than read as literals
+        @Override
+        int[] escapeRanges(char c) {
+            switch (c) {
+                case 'd': return CharRanges.DIGIT;
+                case 'D': return CharRanges.negate(CharRanges.DIGIT);
+                case 'w': return CharRanges.WORD;
+                case 'W': return CharRanges.negate(CharRanges.WORD);
+                case 's': return CharRanges.SPACE;
+                case 'S': return CharRanges.negate(CharRanges.SPACE);
+                case 't': return CharRanges.single('\t');
+                case 'n': return CharRanges.single('\n');
+                case 'r': return CharRanges.single('\r');
+                case 'f': return CharRanges.single('\f');
+                default:
+                    if (Character.isLetterOrDigit(c)) throw new IllegalArgumentException("unsupported escape '\\" + c + "' at index " + (pos - 2));
+                    return null;
+            }
+        }
+    }
+}
@@ -1,25 +1,25 @@
 package dev.neuxs.sound_controller.settings;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 import dev.neuxs.sound_controller.Mod;
 import dev.neuxs.sound_controller.utils.SoundHelper;
+import dev.neuxs.sound_controller.utils.StageTimer;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
 
 public class SettingsManager {
     private static final String CONFIG_DIR_NAME = "config";
@@ -27,8 +27,6 @@ public class SettingsManager {
     private static final String CORRUPTED_CONFIG_FILE_NAME = "sound_controller.corrupted.json";
     private static final Path CONFIG_DIRECTORY_PATH = Paths.get(CONFIG_DIR_NAME);
     private static final Path CONFIG_FILE_PATH = CONFIG_DIRECTORY_PATH.resolve(CONFIG_FILE_NAME);
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Type SOUND_VOLUME_MAP_TYPE = new TypeToken<Map<String, Float>>() {}.getType();
 
     private static final float DEFAULT_VOLUME = 1.0f;
     private static final float MIN_VOLUME = 0.0f;
@@ -37,67 +35,154 @@ public class SettingsManager {
     private static final long RELOAD_DEBOUNCE_MS = 500;
 
     private static final SettingsManager instance = new SettingsManager();
-    private volatile SoundConfig currentConfig;
+    private final AtomicReference<SoundConfig> currentConfig = new AtomicReference<>();
+    private final ConfigPersistence persistence = new ConfigPersistence(this::saveConfigToFile);
+    private final List<VolumeChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Every profile by name. The active profile's live state is currentConfig; its entry here may be older.
+    private volatile Map<String, StoredProfile> profiles = Map.of();
+    private final Object profileLock = new Object();
 
     private WatchService watchService = null;
     private final AtomicBoolean watcherRunning = new AtomicBoolean(false);
     private volatile long lastReloadAttemptTime = 0;
+    private volatile long lastKnownFingerprint = 0;
+    private final AtomicBoolean bootstrapStarted = new AtomicBoolean(false);
+    private final CompletableFuture<SoundConfig> readyFuture = new CompletableFuture<>();
 
-    private SettingsManager() {
-        this.currentConfig = loadConfigInternal();
-        startWatching();
-    }
+    private SettingsManager() {}
 
     public static SettingsManager getInstance() {
         return instance;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     public static void initialize() {
-        getInstance();
+        SettingsManager manager = getInstance();
+        if (!manager.bootstrapStarted.compareAndSet(false, true)) return;
+
+        Thread bootstrapThread = new Thread(manager::bootstrap, "SoundController-Bootstrap");
+        bootstrapThread.setDaemon(true);
+        bootstrapThread.start();
     }
 
-    private SoundConfig loadConfigInternal() {
-        SoundConfig loadedConfig = null;
-        boolean needsSave = false;
-        Path targetPath = CONFIG_FILE_PATH;
+    public static boolean isReady() {
+        CompletableFuture<SoundConfig> future = getInstance().readyFuture;
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    public static CompletableFuture<SoundConfig> whenReady() {
+        return getInstance().readyFuture;
+    }
+
+    private void bootstrap() {
+        StageTimer timer = new StageTimer("Sound Controller startup");
 
         try {
-            Files.createDirectories(CONFIG_DIRECTORY_PATH);
+            publishConfig(readInitialConfig(timer));
+            timer.mark("publish");
 
-            if (Files.exists(targetPath)) {
-                try { Thread.sleep(50); }
-                catch (InterruptedException ignored) { Thread.currentThread().interrupt(); }
-
-                try (BufferedReader reader = Files.newBufferedReader(targetPath, StandardCharsets.UTF_8)) {
-                    Map<String, Float> volumes = GSON.fromJson(reader, SOUND_VOLUME_MAP_TYPE);
-                    if (volumes != null) loadedConfig = new SoundConfig(new TreeMap<>(volumes));
-                    else Mod.LOGGER.warn("Configuration file {} was empty or null. Using default.", targetPath);
-                } catch (JsonSyntaxException | JsonIOException e) {
-                    Mod.LOGGER.error("Failed to parse JSON in {}: {}. Backing up.", targetPath, e.getMessage());
-                    backupCorruptedConfig(targetPath);
-                } catch (IOException e) {
-                    Mod.LOGGER.error("I/O error reading {}: {}. Using default.", targetPath, e.getMessage(), e);
-                } catch (Exception e) {
-                    Mod.LOGGER.error("Unexpected error reading/parsing {}: {}. Using default.", targetPath, e.getMessage(), e);
-                }
-            } else needsSave = true;
+            startWatching();
+            timer.mark("watcher");
 
-        } catch (IOException e) {
-            Mod.LOGGER.error("Fatal: Failed to create config directory {}: {}. Using in-memory default.", CONFIG_DIRECTORY_PATH, e.getMessage(), e);
-            loadedConfig = createDefaultConfig();
-            return loadedConfig;
+            // Volumes resolve from the config alone, so playSound is already using them while the catalog is scanned
+            SoundHelper.initializeStringIdentifierMap();
+            timer.mark("asset scan");
+
+            timer.log();
+            readyFuture.complete(currentConfig.get());
+        } catch (Throwable t) {
+            Mod.LOGGER.error("Fatal: Sound Controller failed to start: {}", t.getMessage(), t);
+            readyFuture.completeExceptionally(t);
+        }
+    }
+
+    private SoundConfig readInitialConfig(StageTimer timer) {
+        try {
+            byte[] content = null;
+            try {
+                Files.createDirectories(CONFIG_DIRECTORY_PATH);
+                if (Files.exists(CONFIG_FILE_PATH)) content = Files.readAllBytes(CONFIG_FILE_PATH);
+            } catch (IOException e) {
+                Mod.LOGGER.error("Fatal: Failed to read config {}: {}. Using in-memory default.", CONFIG_FILE_PATH, e.getMessage(), e);
+                return createDefaultConfig();
+            }
+            timer.mark("read");
+
+            return loadConfigInternal(content, timer);
         } catch (Exception e) {
-            Mod.LOGGER.error("Fatal: Unexpected error during config loading setup for {}: {}. Using in-memory default.", targetPath, e.getMessage(), e);
-            loadedConfig = createDefaultConfig();
-            return loadedConfig;
+            Mod.LOGGER.error("Fatal: Unexpected error during config loading for {}: {}. Using in-memory default.", CONFIG_FILE_PATH, e.getMessage(), e);
+            return createDefaultConfig();
         }
+    }
 
-        if (loadedConfig == null) loadedConfig = createDefaultConfig();
+    private SoundConfig loadConfigInternal(byte[] content, StageTimer timer) {
+        Map<String, Float> loadedVolumes = null;
+        PlaybackOptions playbackOptions = PlaybackOptions.DEFAULT;
+        Map<String, SoundPolicy> policies = null;
+        Map<String, Float> groupVolumes = null;
+        List<VolumeRule> rules = null;
+        Map<String, ConfigFile.ProfileSection> profileSections = Map.of();
+        String activeProfile = SoundConfig.DEFAULT_PROFILE;
+        boolean needsSave = content == null;
+        boolean sparse = true;
+        Path targetPath = CONFIG_FILE_PATH;
 
-        boolean syncMadeChanges = syncConfigWithGameSounds(loadedConfig);
+        if (content != null) {
+            try {
+                lastKnownFingerprint = fingerprint(content);
+                ConfigFile file = ConfigFile.parse(content);
+                if (file != null) {
+                    loadedVolumes = new TreeMap<>(file.volumes);
+                    playbackOptions = file.playback;
+                    policies = file.policies;
+                    groupVolumes = file.groups;
+                    rules = file.rules;
+                    profileSections = file.profiles;
+                    activeProfile = file.activeProfile;
+                    if (file.legacyFormat || file.format < ConfigFile.SPARSE_FORMAT) {
+                        Mod.LOGGER.info("Migrating {} to the current config format.", targetPath);
+                        sparse = false;
+                        needsSave = true;
+                    }
+                } else Mod.LOGGER.warn("Configuration file {} was empty or null. Using default.", targetPath);
+            } catch (JsonParseException e) {
+                Mod.LOGGER.error("Failed to parse JSON in {}: {}. Backing up.", targetPath, e.getMessage());
+                backupCorruptedConfig(targetPath);
+            } catch (Exception e) {
+                Mod.LOGGER.error("Unexpected error reading/parsing {}: {}. Using default.", targetPath, e.getMessage(), e);
+            }
+        }
+        if (timer != null) timer.mark("parse");
+
+        if (loadedVolumes == null) loadedVolumes = new TreeMap<>();
+
+        RuleMatcher ruleMatcher = RuleMatcher.compile(rules);
+        if (!sparse) dropPlaceholderEntries(loadedVolumes);
+        SoundConfig loadedConfig = new SoundConfig(loadedVolumes, playbackOptions, policies, groupVolumes, ruleMatcher, 0L);
+        // Entries equal to what the sound inherits are dropped by SoundConfig and should leave the file too
+        boolean redundantEntries = loadedConfig.size() != loadedVolumes.size();
+
+        // Every profile is compiled here so a later switch does no parsing
+        Map<String, SoundConfig> profileConfigs = new TreeMap<>();
+        profileConfigs.put(SoundConfig.DEFAULT_PROFILE, loadedConfig);
+        for (Map.Entry<String, ConfigFile.ProfileSection> entry : profileSections.entrySet()) {
+            if (entry.getKey() == null || entry.getKey().isBlank() || SoundConfig.DEFAULT_PROFILE.equals(entry.getKey())) continue;
+            Map<String, Float> profileVolumes = new TreeMap<>(entry.getValue().volumes);
+            if (!sparse) dropPlaceholderEntries(profileVolumes);
+            SoundConfig profileConfig = new SoundConfig(profileVolumes, playbackOptions, policies,
+                    entry.getValue().groups, ruleMatcher, 0L).asProfile(entry.getKey());
+            redundantEntries |= profileConfig.size() != profileVolumes.size();
+            profileConfigs.put(entry.getKey(), profileConfig);
+        }
+        if (!profileConfigs.containsKey(activeProfile)) {
+            Mod.LOGGER.warn("Active profile '{}' is not defined in {}. Using '{}'.", activeProfile, targetPath, SoundConfig.DEFAULT_PROFILE);
+            activeProfile = SoundConfig.DEFAULT_PROFILE;
+        }
+        loadedConfig = profileConfigs.get(activeProfile);
+        installProfiles(profileConfigs, activeProfile);
+        if (timer != null) timer.mark("sync");
 
-        if (needsSave || syncMadeChanges) saveConfigToFile(loadedConfig);
+        if (needsSave || redundantEntries) persistence.saveNow(loadedConfig);
+        if (timer != null) timer.mark("save");
 
         return loadedConfig;
     }
@@ -113,11 +198,12 @@ public class SettingsManager {
         try {
             Files.createDirectories(CONFIG_DIRECTORY_PATH);
             Path tempPath = targetPath.resolveSibling(targetPath.getFileName().toString() + ".tmp");
-            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
-                GSON.toJson(configToSave.getSoundVolumes(), writer);
-            }
+            byte[] content = ConfigFile.serialize(configToSave, getProfileConfigs());
+            Files.write(tempPath, content);
+            // Recorded before the move so the watcher can recognize the event this write is about to cause
+            lastKnownFingerprint = fingerprint(content);
             Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (JsonIOException e) {
+        } catch (JsonParseException e) {
             Mod.LOGGER.error("Gson error writing config to {}: {}", targetPath, e.getMessage(), e);
         } catch (IOException e) {
             Mod.LOGGER.error("I/O error saving config to {}: {}", targetPath, e.getMessage(), e);
@@ -127,41 +213,33 @@ public class SettingsManager {
     }
 
     private SoundConfig createDefaultConfig() {
-        return new SoundConfig(new TreeMap<>());
+        SoundConfig config = new SoundConfig(new TreeMap<>());
+        installProfiles(Map.of(SoundConfig.DEFAULT_PROFILE, config), SoundConfig.DEFAULT_PROFILE);
+        return config;
     }
 
-    private boolean syncConfigWithGameSounds(SoundConfig config) {
-        if (config == null) return false;
-
-        boolean modified = false;
-        Map<String, Float> currentVolumes = config.getSoundVolumes();
-        Set<String> gameSoundIds;
-
-        try { gameSoundIds = SoundHelper.getAllSoundIdentifiers().keySet(); }
-        catch (Exception e) {
-            Mod.LOGGER.error("Failed to get sound IDs from SoundHelper during sync", e);
-            return false;
+    private void installProfiles(Map<String, SoundConfig> profileConfigs, String activeProfile) {
+        Map<String, StoredProfile> installed = new TreeMap<>();
+        for (Map.Entry<String, SoundConfig> entry : profileConfigs.entrySet()) {
+            SoundConfig config = entry.getValue();
+            // The active profile's table is built when it is published
+            VolumeTable.Prepared table = entry.getKey().equals(activeProfile) ? null : VolumeTable.prepare(config);
+            installed.put(entry.getKey(), new StoredProfile(config, table));
         }
-
-        for (String gameSoundId : gameSoundIds) {
-            if (!currentVolumes.containsKey(gameSoundId)) {
-                currentVolumes.put(gameSoundId, DEFAULT_VOLUME);
-                modified = true;
-            }
+        synchronized (profileLock) {
+            profiles = Collections.unmodifiableMap(installed);
         }
+    }
 
-        Set<String> configuredSounds = Set.copyOf(currentVolumes.keySet());
-        for (String configuredSoundId : configuredSounds) {
-            if (gameSoundIds.contains(configuredSoundId)) {
-                float currentVol = currentVolumes.get(configuredSoundId);
-                float clampedVol = clampVolume(currentVol);
-                if (Math.abs(currentVol - clampedVol) > 0.0001f) {
-                    currentVolumes.put(configuredSoundId, clampedVol);
-                    modified = true;
-                }
-            }
-        }
-        return modified;
+    private Map<String, SoundConfig> getProfileConfigs() {
+        Map<String, SoundConfig> configs = new TreeMap<>();
+        for (Map.Entry<String, StoredProfile> entry : profiles.entrySet()) configs.put(entry.getKey(), entry.getValue().config);
+        return configs;
+    }
+
+    // Full-map files listed every sound at the default, and those placeholders would hide volume rules
+    private static void dropPlaceholderEntries(Map<String, Float> volumes) {
+        volumes.values().removeIf(volume -> volume == null || Math.abs(volume - DEFAULT_VOLUME) <= 0.0001f);
     }
 
     private static float clampVolume(float volume) {
@@ -180,37 +258,319 @@ public class SettingsManager {
         }
     }
 
+    public static SoundConfig getSnapshot() {
+        return getInstance().currentConfig.get();
+    }
+
     public static float getVolume(String soundId) {
-        SoundConfig config = getInstance().currentConfig;
-        if (config == null) {
-            Mod.LOGGER.error("getVolume called but currentConfig is NULL! ID='{}'", soundId);
-            return 1.0f;
-        }
+        SoundConfig config = getSnapshot();
+        if (config == null) return DEFAULT_VOLUME;
 
         return config.getVolume(soundId);
     }
 
     public static void setVolume(String soundId, float volume) {
         SettingsManager manager = getInstance();
-        if (manager.currentConfig == null) {
-            Mod.LOGGER.error("setVolume called but currentConfig is NULL! Cannot set Volume for ID='{}'", soundId);
-            return;
-        }
 
 //        if (soundId.contains("music")) GameMusicManager.forceSongChange(); // Any proper implementation is just taking far too long
 
-        if (manager.currentConfig.setVolume(soundId, volume)) saveSettings();
+        while (true) {
+            SoundConfig current = manager.currentConfig.get();
+            if (current == null) {
+                Mod.LOGGER.warn("setVolume called before the config finished loading. Ignoring volume for ID='{}'", soundId);
+                return;
+            }
+
+            SoundConfig updated = current.withVolume(soundId, volume);
+            if (updated == current) return;
+
+            if (manager.currentConfig.compareAndSet(current, updated)) {
+                manager.publishChanges(updated, List.of(soundId));
+                saveSettings();
+                return;
+            }
+        }
+    }
+
+    public static VolumeBatch batch() {
+        return new VolumeBatch();
+    }
+
+    static int applyBatch(VolumeBatch batch) {
+        SettingsManager manager = getInstance();
+
+        while (true) {
+            SoundConfig current = manager.currentConfig.get();
+            if (current == null) {
+                Mod.LOGGER.warn("Volume batch of {} edit(s) committed before the config finished loading. Ignoring it.", batch.size());
+                return 0;
+            }
+
+            Map<String, Float> changes = batch.resolve(current);
+            SoundConfig updated = current.withVolumes(changes);
+            if (updated == current) return 0;
+
+            if (manager.currentConfig.compareAndSet(current, updated)) {
+                manager.publishChanges(updated, changes.keySet());
+                saveSettings();
+                return changes.size();
+            }
+        }
+    }
+
+    public static float getGroupVolume(String groupKey) {
+        SoundConfig config = getSnapshot();
+        if (config == null) return DEFAULT_VOLUME;
+
+        return config.getGroupVolume(groupKey);
+    }
+
+    public static void setGroupVolume(String groupKey, float volume) {
+        SettingsManager manager = getInstance();
+
+        while (true) {
+            SoundConfig current = manager.currentConfig.get();
+            if (current == null) {
+                Mod.LOGGER.warn("setGroupVolume called before the config finished loading. Ignoring volume for group='{}'", groupKey);
+                return;
+            }
+
+            SoundConfig updated = current.withGroupVolume(groupKey, volume);
+            if (updated == current) return;
+
+            if (manager.currentConfig.compareAndSet(current, updated)) {
+                // A group reaches an unbounded set of sounds, so the whole table is rebuilt
+                VolumeTable.bind(updated);
+                manager.notifyListeners(updated, null);
+                saveSettings();
+                return;
+            }
+        }
+    }
+
+    public static List<String> getProfileNames() {
+        return List.copyOf(getInstance().profiles.keySet());
+    }
+
+    public static String getActiveProfile() {
+        SoundConfig config = getSnapshot();
+        return config != null ? config.getProfileName() : SoundConfig.DEFAULT_PROFILE;
+    }
+
+    // A reference swap of the config and the volume table; the file is written later by the debounced saver
+    public static boolean switchProfile(String profileName) {
+        SettingsManager manager = getInstance();
+        synchronized (manager.profileLock) {
+            StoredProfile target = manager.profiles.get(profileName);
+            if (target == null) {
+                Mod.LOGGER.warn("Cannot switch to unknown sound profile '{}'", profileName);
+                return false;
+            }
+
+            SoundConfig current;
+            SoundConfig incoming;
+            do {
+                current = manager.currentConfig.get();
+                if (current == null) {
+                    Mod.LOGGER.warn("switchProfile called before the config finished loading. Ignoring profile '{}'", profileName);
+                    return false;
+                }
+                if (current.getProfileName().equals(profileName)) return true;
+                incoming = target.config.withVersion(current.getVersion() + 1);
+            } while (!manager.currentConfig.compareAndSet(current, incoming));
+
+            VolumeTable.Prepared prepared = target.table != null && target.table.isFor(target.config) ? target.table : VolumeTable.prepare(target.config);
+            VolumeTable.Prepared outgoing = VolumeTable.swap(incoming, prepared);
+            PolicyTable.bind(incoming);
+
+            Map<String, StoredProfile> updated = new TreeMap<>(manager.profiles);
+            // A table captured mid-edit may predate current; it is rebuilt on the next switch instead
+            updated.put(current.getProfileName(), new StoredProfile(current, outgoing.isFor(current) ? outgoing : null));
+            updated.put(profileName, new StoredProfile(target.config, null));
+            manager.profiles = Collections.unmodifiableMap(updated);
+
+            manager.notifyListeners(incoming, null);
+            Mod.LOGGER.info("Switched to sound profile '{}'", profileName);
+        }
+        saveSettings();
+        return true;
+    }
+
+    public static boolean cycleProfile() {
+        List<String> names = getProfileNames();
+        if (names.size() < 2) return false;
+        int index = names.indexOf(getActiveProfile());
+        return switchProfile(names.get((index + 1) % names.size()));
+    }
+
+    // Copies the active profile's volumes into a new profile without switching to it
+    public static boolean createProfile(String profileName) {
+        if (profileName == null || profileName.isBlank()) return false;
+        SettingsManager manager = getInstance();
+        synchronized (manager.profileLock) {
+            SoundConfig current = manager.currentConfig.get();
+            if (current == null || manager.profiles.containsKey(profileName)) return false;
+
+            SoundConfig copy = current.asProfile(profileName);
+            Map<String, StoredProfile> updated = new TreeMap<>(manager.profiles);
+            updated.put(profileName, new StoredProfile(copy, VolumeTable.prepare(copy)));
+            manager.profiles = Collections.unmodifiableMap(updated);
+
+            // The new profile lives outside the snapshot, so the version is bumped to get it written
+            SoundConfig bumped;
+            do {
+                current = manager.currentConfig.get();
+                bumped = current.withVersion(current.getVersion() + 1);
+            } while (!manager.currentConfig.compareAndSet(current, bumped));
+            manager.publishChanges(bumped, List.of());
+        }
+        saveSettings();
+        return true;
     }
 
     public static void saveSettings() {
-        getInstance().saveConfigToFile(getInstance().currentConfig);
+        SoundConfig snapshot = getSnapshot();
+        if (snapshot != null) getInstance().persistence.requestSave(snapshot);
+    }
+
+    public static void flushSettings() {
+        getInstance().persistence.flush();
+    }
+
+    public static boolean hasPendingWrites() {
+        return getInstance().persistence.hasPendingWrites();
+    }
+
+    public static void addVolumeChangeListener(VolumeChangeListener listener) {
+        if (listener != null) getInstance().listeners.add(listener);
+    }
+
+    public static void removeVolumeChangeListener(VolumeChangeListener listener) {
+        getInstance().listeners.remove(listener);
+    }
+
+    private SoundConfig publishConfig(SoundConfig loadedConfig) {
+        SoundConfig published = currentConfig.updateAndGet(previous ->
+                loadedConfig.withVersion(previous != null ? previous.getVersion() + 1 : loadedConfig.getVersion()));
+        VolumeTable.bind(published);
+        PolicyTable.bind(published);
+        notifyListeners(published, null);
+        return published;
+    }
+
+    private void publishChanges(SoundConfig updated, Collection<String> changedIds) {
+        VolumeTable.update(updated, changedIds);
+        notifyListeners(updated, changedIds);
+    }
+
+    private void notifyListeners(SoundConfig snapshot, Collection<String> changedIds) {
+        for (VolumeChangeListener listener : listeners) {
+            try { listener.onVolumesChanged(snapshot, changedIds); }
+            catch (Exception e) { Mod.LOGGER.error("Volume change listener {} failed: {}", listener, e.getMessage(), e); }
+        }
+    }
+
+    private void applyExternalConfig(ConfigFile file, long writtenBeforeRead) {
+        while (true) {
+            SoundConfig current = currentConfig.get();
+            Map<String, Float> changes = new HashMap<>();
+            SoundConfig updated = reconcile(current, file, changes);
+            if (updated == current) return;
+
+            if (currentConfig.compareAndSet(current, updated)) {
+                // Saves queued before the reload hold the state the user just edited away
+                persistence.supersede(updated, writtenBeforeRead);
+                boolean policiesChanged = !current.getPolicies().equals(updated.getPolicies());
+                boolean groupsChanged = !current.getGroupVolumes().equals(updated.getGroupVolumes());
+                boolean rulesChanged = !current.getRules().equals(updated.getRules());
+                if (policiesChanged) PolicyTable.bind(updated);
+                if (groupsChanged || rulesChanged) {
+                    VolumeTable.bind(updated);
+                    notifyListeners(updated, null);
+                } else publishChanges(updated, changes.keySet());
+                Mod.LOGGER.info("Reloaded {}: {} volume(s) changed{}{}{}{}.", CONFIG_FILE_NAME, changes.size(),
+                        current.getPlaybackOptions().equals(updated.getPlaybackOptions()) ? "" : ", playback options changed",
+                        policiesChanged ? ", sound policies changed" : "",
+                        groupsChanged ? ", group volumes changed" : "",
+                        rulesChanged ? ", volume rules changed" : "");
+                return;
+            }
+        }
+    }
+
+    // Brings current in line with a sparse file, leaving the same explicit entries a fresh load would.
+    // The file's rules go in first, and explicit entries are compared with explicit entries, never with resolved volumes.
+    static SoundConfig reconcile(SoundConfig current, ConfigFile file, Map<String, Float> changes) {
+        SoundConfig ruled = current.withRules(file.rules);
+        for (Map.Entry<String, Float> entry : file.volumes.entrySet()) {
+            String soundId = entry.getKey();
+            if (soundId == null || entry.getValue() == null) continue;
+            float fileVolume = clampVolume(entry.getValue());
+            boolean inherited = Math.abs(ruled.getInheritedVolume(soundId) - fileVolume) <= 0.0001f;
+            // An entry the new rules now cover is dropped, as the loader would drop it
+            boolean changed = ruled.contains(soundId) ? inherited || Math.abs(ruled.getVolume(soundId) - fileVolume) > 0.0001f : !inherited;
+            if (changed) changes.put(soundId, fileVolume);
+        }
+
+        for (int i = 0; i < ruled.size(); i++) {
+            String soundId = ruled.getSoundId(i);
+            // Dropping the explicit entry lets the sound fall back to its rule or the default
+            if (!file.volumes.containsKey(soundId)) changes.put(soundId, null);
+        }
+
+        return ruled.withVolumes(changes).withPlaybackOptions(file.playback).withPolicies(file.policies).withGroupVolumes(file.groups);
+    }
+
+    private static final class StoredProfile {
+        private final SoundConfig config;
+        private final VolumeTable.Prepared table;
+
+        private StoredProfile(SoundConfig config, VolumeTable.Prepared table) {
+            this.config = config;
+            this.table = table;
+        }
+    }
+
+    private static ConfigFile parseConfigFile(byte[] content) {
+        try { return ConfigFile.parse(content); }
+        catch (JsonParseException e) { return null; }
     }
 
     private synchronized void performReload() {
+        long writtenBeforeRead = persistence.getLastWrittenVersion();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(CONFIG_FILE_PATH);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            Mod.LOGGER.error("I/O error reading {} for reload: {}", CONFIG_FILE_PATH, e.getMessage(), e);
+            return;
+        }
+
+        if (fingerprint(content) == lastKnownFingerprint) return;
+
         long now = System.currentTimeMillis();
         if ((now - lastReloadAttemptTime < RELOAD_DEBOUNCE_MS)) return;
         lastReloadAttemptTime = now;
-        this.currentConfig = loadConfigInternal();
+
+        ConfigFile file = parseConfigFile(content);
+        // Profile sections are compiled together and old full-map files need migrating, so both take the full path
+        if (file == null || currentConfig.get() == null || !file.profiles.isEmpty() || profiles.size() > 1
+                || file.legacyFormat || file.format < ConfigFile.SPARSE_FORMAT) {
+            // Unparseable or empty files take the full path, which handles backups and defaults
+            persistence.supersede(publishConfig(loadConfigInternal(content, null)), writtenBeforeRead);
+            return;
+        }
+
+        lastKnownFingerprint = fingerprint(content);
+        applyExternalConfig(file, writtenBeforeRead);
+    }
+
+    private static long fingerprint(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        return ((long) content.length << 32) ^ crc.getValue();
     }
 
     private void startWatching() {
@@ -228,7 +588,7 @@ public class SettingsManager {
 
         try {
             watchService = FileSystems.getDefault().newWatchService();
-            CONFIG_DIRECTORY_PATH.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
+            CONFIG_DIRECTORY_PATH.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
 
             ExecutorService watchExecutor = Executors.newSingleThreadExecutor(r -> {
                 Thread t = Executors.defaultThreadFactory().newThread(r);
@@ -285,7 +645,7 @@ public class SettingsManager {
                     continue;
                 }
 
-                if (kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                if (kind == StandardWatchEventKinds.ENTRY_MODIFY || kind == StandardWatchEventKinds.ENTRY_CREATE) {
                     Path changedFile = (Path) event.context();
                     if (changedFile != null && changedFile.toString().equals(CONFIG_FILE_NAME)) {
                         relevantChange = true;
@@ -1,34 +1,353 @@
 package dev.neuxs.sound_controller.settings;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 
-public class SoundConfig {
-    private final Map<String, Float> soundVolumes;
+public final class SoundConfig {
+    private final long version;
+    private final String[] soundIds;
+    private final float[] volumes;
+    private final PlaybackOptions playbackOptions;
+    private final Map<String, SoundPolicy> policies;
+    // Keyed by "namespace" or by a folder prefix such as "base:sounds/blocks/"
+    private final Map<String, Float> groupVolumes;
+    // Supplies the volume of any sound without an explicit entry
+    private final RuleMatcher rules;
+    private final String profileName;
 
+    public static final String DEFAULT_PROFILE = "default";
+    private static final String NAMESPACE_WILDCARD = "*";
     private static final float DEFAULT_VOLUME = 1.0f;
     private static final float MIN_VOLUME = 0.0f;
     private static final float MAX_VOLUME = 1.0f;
 
     public SoundConfig(Map<String, Float> initialVolumes) {
-        this.soundVolumes = (initialVolumes != null) ? new TreeMap<>(initialVolumes) : new TreeMap<>();
+        this(initialVolumes, PlaybackOptions.DEFAULT, null, null, RuleMatcher.EMPTY, 0L);
+    }
+
+    public SoundConfig(Map<String, Float> initialVolumes, PlaybackOptions playbackOptions, Map<String, SoundPolicy> policies,
+                       Map<String, Float> groupVolumes, List<VolumeRule> rules, long version) {
+        this(initialVolumes, playbackOptions, policies, groupVolumes, RuleMatcher.compile(rules), version);
+    }
+
+    SoundConfig(Map<String, Float> initialVolumes, PlaybackOptions playbackOptions, Map<String, SoundPolicy> policies,
+                Map<String, Float> groupVolumes, RuleMatcher rules, long version) {
+        TreeMap<String, Float> sorted = (initialVolumes != null) ? new TreeMap<>(initialVolumes) : new TreeMap<>();
+        sorted.values().removeIf(Objects::isNull);
+        this.version = version;
+        this.playbackOptions = playbackOptions != null ? playbackOptions : PlaybackOptions.DEFAULT;
+        this.policies = copyPolicies(policies);
+        this.groupVolumes = copyGroupVolumes(groupVolumes);
+        this.rules = rules != null ? rules : RuleMatcher.EMPTY;
+        this.profileName = DEFAULT_PROFILE;
+
+        String[] ids = new String[sorted.size()];
+        float[] values = new float[sorted.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : sorted.entrySet()) {
+            float volume = clampVolume(entry.getValue());
+            // Only customized sounds are kept; everything else is resolved from the rules on lookup
+            if (isInherited(entry.getKey(), volume)) continue;
+            ids[i] = entry.getKey();
+            values[i] = volume;
+            i++;
+        }
+        this.soundIds = i == ids.length ? ids : Arrays.copyOf(ids, i);
+        this.volumes = i == values.length ? values : Arrays.copyOf(values, i);
+    }
+
+    private SoundConfig(long version, String[] soundIds, float[] volumes, PlaybackOptions playbackOptions,
+                        Map<String, SoundPolicy> policies, Map<String, Float> groupVolumes, RuleMatcher rules, String profileName) {
+        this.version = version;
+        this.soundIds = soundIds;
+        this.volumes = volumes;
+        this.playbackOptions = playbackOptions;
+        this.policies = policies;
+        this.groupVolumes = groupVolumes;
+        this.rules = rules;
+        this.profileName = profileName;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    public PlaybackOptions getPlaybackOptions() {
+        return playbackOptions;
+    }
+
+    public Map<String, SoundPolicy> getPolicies() {
+        return policies;
+    }
+
+    // An exact sound ID entry wins over a "namespace:*" entry
+    public SoundPolicy getPolicy(String soundId) {
+        Objects.requireNonNull(soundId, "soundId cannot be null");
+        if (policies.isEmpty()) return SoundPolicy.NONE;
+
+        SoundPolicy policy = policies.get(soundId);
+        if (policy != null) return policy;
+        int separator = soundId.indexOf(':');
+        if (separator < 0) return SoundPolicy.NONE;
+        return policies.getOrDefault(soundId.substring(0, separator + 1) + NAMESPACE_WILDCARD, SoundPolicy.NONE);
+    }
+
+    public int size() {
+        return soundIds.length;
+    }
+
+    public String getSoundId(int index) {
+        return soundIds[index];
+    }
+
+    public float getVolumeAt(int index) {
+        return volumes[index];
+    }
+
+    public boolean contains(String soundId) {
+        Objects.requireNonNull(soundId, "soundId cannot be null");
+        return Arrays.binarySearch(soundIds, soundId) >= 0;
     }
 
     public float getVolume(String soundId) {
         Objects.requireNonNull(soundId, "soundId cannot be null");
-        return soundVolumes.getOrDefault(soundId, DEFAULT_VOLUME);
+        int index = Arrays.binarySearch(soundIds, soundId);
+        return index >= 0 ? volumes[index] : rules.resolve(soundId, DEFAULT_VOLUME);
+    }
+
+    // The volume the sound would have without an explicit entry
+    float getInheritedVolume(String soundId) {
+        return rules.resolve(soundId, DEFAULT_VOLUME);
+    }
+
+    private boolean isInherited(String soundId, float volume) {
+        return Math.abs(volume - getInheritedVolume(soundId)) <= 0.0001f;
+    }
+
+    public List<VolumeRule> getRules() {
+        return rules.getRules();
+    }
+
+    boolean hasMatchingRule(String soundId) {
+        return rules.match(soundId) >= 0;
+    }
+
+    public Map<String, Float> getGroupVolumes() {
+        return groupVolumes;
+    }
+
+    public float getGroupVolume(String groupKey) {
+        Objects.requireNonNull(groupKey, "groupKey cannot be null");
+        return groupVolumes.getOrDefault(groupKey, DEFAULT_VOLUME);
     }
 
-    public boolean setVolume(String soundId, float volume) {
+    // The sound's own volume scaled by its namespace group and every enclosing folder group
+    public float getEffectiveVolume(String soundId) {
+        float volume = getVolume(soundId);
+        if (groupVolumes.isEmpty()) return volume;
+
+        int separator = soundId.indexOf(':');
+        if (separator < 0) return volume;
+        volume *= getGroupVolume(soundId.substring(0, separator));
+        for (int slash = soundId.indexOf('/', separator + 1); slash >= 0; slash = soundId.indexOf('/', slash + 1)) {
+            volume *= getGroupVolume(soundId.substring(0, slash + 1));
+        }
+        return volume;
+    }
+
+    public SoundConfig withVolume(String soundId, float volume) {
         Objects.requireNonNull(soundId, "soundId cannot be null");
         float clampedVolume = clampVolume(volume);
-        Float previousValue = soundVolumes.put(soundId, clampedVolume);
-        return previousValue == null || Math.abs(previousValue - clampedVolume) > 0.0001f;
+        int index = Arrays.binarySearch(soundIds, soundId);
+        if (isInherited(soundId, clampedVolume)) {
+            if (index < 0) return this;
+            Map<String, Float> removal = new HashMap<>(2);
+            removal.put(soundId, null);
+            return withVolumes(removal);
+        }
+
+        if (index >= 0) {
+            if (Math.abs(volumes[index] - clampedVolume) <= 0.0001f) return this;
+            float[] newVolumes = volumes.clone();
+            newVolumes[index] = clampedVolume;
+            return new SoundConfig(version + 1, soundIds, newVolumes, playbackOptions, policies, groupVolumes, rules, profileName);
+        }
+
+        int insertAt = -index - 1;
+        String[] newIds = new String[soundIds.length + 1];
+        float[] newVolumes = new float[volumes.length + 1];
+        System.arraycopy(soundIds, 0, newIds, 0, insertAt);
+        System.arraycopy(volumes, 0, newVolumes, 0, insertAt);
+        newIds[insertAt] = soundId;
+        newVolumes[insertAt] = clampedVolume;
+        System.arraycopy(soundIds, insertAt, newIds, insertAt + 1, soundIds.length - insertAt);
+        System.arraycopy(volumes, insertAt, newVolumes, insertAt + 1, volumes.length - insertAt);
+        return new SoundConfig(version + 1, newIds, newVolumes, playbackOptions, policies, groupVolumes, rules, profileName);
+    }
+
+    // A null volume, or one equal to what the sound would inherit, removes the explicit entry
+    public SoundConfig withVolumes(Map<String, Float> changes) {
+        Objects.requireNonNull(changes, "changes cannot be null");
+        if (changes.isEmpty()) return this;
+
+        float[] newVolumes = null;
+        TreeMap<String, Float> insertions = null;
+        Set<String> removals = null;
+
+        for (Map.Entry<String, Float> change : changes.entrySet()) {
+            String soundId = Objects.requireNonNull(change.getKey(), "soundId cannot be null");
+            int index = Arrays.binarySearch(soundIds, soundId);
+            if (change.getValue() == null || isInherited(soundId, clampVolume(change.getValue()))) {
+                if (index >= 0) {
+                    if (removals == null) removals = new HashSet<>();
+                    removals.add(soundId);
+                }
+                continue;
+            }
+
+            float clampedVolume = clampVolume(change.getValue());
+            if (index < 0) {
+                if (insertions == null) insertions = new TreeMap<>();
+                insertions.put(soundId, clampedVolume);
+            } else if (Math.abs(volumes[index] - clampedVolume) > 0.0001f) {
+                if (newVolumes == null) newVolumes = volumes.clone();
+                newVolumes[index] = clampedVolume;
+            }
+        }
+
+        if (newVolumes == null && insertions == null && removals == null) return this;
+        if (newVolumes == null) newVolumes = volumes;
+        if (removals != null) return rebuild(newVolumes, insertions, removals);
+        if (insertions == null) return new SoundConfig(version + 1, soundIds, newVolumes, playbackOptions, policies, groupVolumes, rules, profileName);
+
+        int total = soundIds.length + insertions.size();
+        String[] mergedIds = new String[total];
+        float[] mergedVolumes = new float[total];
+        int existing = 0;
+        int merged = 0;
+        for (Map.Entry<String, Float> insertion : insertions.entrySet()) {
+            int insertAt = -Arrays.binarySearch(soundIds, insertion.getKey()) - 1;
+            int run = insertAt - existing;
+            System.arraycopy(soundIds, existing, mergedIds, merged, run);
+            System.arraycopy(newVolumes, existing, mergedVolumes, merged, run);
+            merged += run;
+            existing = insertAt;
+            mergedIds[merged] = insertion.getKey();
+            mergedVolumes[merged] = insertion.getValue();
+            merged++;
+        }
+        System.arraycopy(soundIds, existing, mergedIds, merged, soundIds.length - existing);
+        System.arraycopy(newVolumes, existing, mergedVolumes, merged, soundIds.length - existing);
+        return new SoundConfig(version + 1, mergedIds, mergedVolumes, playbackOptions, policies, groupVolumes, rules, profileName);
+    }
+
+    private SoundConfig rebuild(float[] currentVolumes, Map<String, Float> insertions, Set<String> removals) {
+        TreeMap<String, Float> merged = new TreeMap<>();
+        for (int i = 0; i < soundIds.length; i++) {
+            if (!removals.contains(soundIds[i])) merged.put(soundIds[i], currentVolumes[i]);
+        }
+        if (insertions != null) merged.putAll(insertions);
+
+        String[] newIds = merged.keySet().toArray(new String[0]);
+        float[] newVolumes = new float[newIds.length];
+        int i = 0;
+        for (float volume : merged.values()) newVolumes[i++] = volume;
+        return new SoundConfig(version + 1, newIds, newVolumes, playbackOptions, policies, groupVolumes, rules, profileName);
+    }
+
+    public SoundConfig withRules(List<VolumeRule> newRules) {
+        RuleMatcher compiled = RuleMatcher.compile(newRules);
+        if (compiled.getRules().equals(rules.getRules())) return this;
+        return new SoundConfig(version + 1, soundIds, volumes, playbackOptions, policies, groupVolumes, compiled, profileName);
+    }
+
+    public SoundConfig withPlaybackOptions(PlaybackOptions newOptions) {
+        Objects.requireNonNull(newOptions, "playbackOptions cannot be null");
+        return newOptions.equals(playbackOptions) ? this : new SoundConfig(version + 1, soundIds, volumes, newOptions, policies, groupVolumes, rules, profileName);
+    }
+
+    public SoundConfig withPolicy(String soundId, SoundPolicy policy) {
+        Objects.requireNonNull(soundId, "soundId cannot be null");
+        SoundPolicy normalized = policy != null ? policy.normalized() : SoundPolicy.NONE;
+        if (policies.getOrDefault(soundId, SoundPolicy.NONE).equals(normalized)) return this;
+
+        TreeMap<String, SoundPolicy> newPolicies = new TreeMap<>(policies);
+        if (normalized.isDefault()) newPolicies.remove(soundId);
+        else newPolicies.put(soundId, normalized);
+        return new SoundConfig(version + 1, soundIds, volumes, playbackOptions, Collections.unmodifiableMap(newPolicies), groupVolumes, rules, profileName);
+    }
+
+    public SoundConfig withPolicies(Map<String, SoundPolicy> newPolicies) {
+        Map<String, SoundPolicy> copy = copyPolicies(newPolicies);
+        return copy.equals(policies) ? this : new SoundConfig(version + 1, soundIds, volumes, playbackOptions, copy, groupVolumes, rules, profileName);
+    }
+
+    public SoundConfig withGroupVolume(String groupKey, float volume) {
+        Objects.requireNonNull(groupKey, "groupKey cannot be null");
+        float clampedVolume = clampVolume(volume);
+        if (Math.abs(getGroupVolume(groupKey) - clampedVolume) <= 0.0001f) return this;
+
+        TreeMap<String, Float> newGroups = new TreeMap<>(groupVolumes);
+        if (Math.abs(clampedVolume - DEFAULT_VOLUME) <= 0.0001f) newGroups.remove(groupKey);
+        else newGroups.put(groupKey, clampedVolume);
+        return new SoundConfig(version + 1, soundIds, volumes, playbackOptions, policies,
+                newGroups.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(newGroups), rules, profileName);
+    }
+
+    public SoundConfig withGroupVolumes(Map<String, Float> newGroupVolumes) {
+        Map<String, Float> copy = copyGroupVolumes(newGroupVolumes);
+        return copy.equals(groupVolumes) ? this : new SoundConfig(version + 1, soundIds, volumes, playbackOptions, policies, copy, rules, profileName);
+    }
+
+    SoundConfig withVersion(long newVersion) {
+        return newVersion == version ? this : new SoundConfig(newVersion, soundIds, volumes, playbackOptions, policies, groupVolumes, rules, profileName);
+    }
+
+    SoundConfig asProfile(String newProfileName) {
+        Objects.requireNonNull(newProfileName, "profileName cannot be null");
+        return newProfileName.equals(profileName) ? this
+                : new SoundConfig(version, soundIds, volumes, playbackOptions, policies, groupVolumes, rules, newProfileName);
+    }
+
+    Map<String, Float> toMap() {
+        Map<String, Float> map = new LinkedHashMap<>(soundIds.length * 2);
+        for (int i = 0; i < soundIds.length; i++) map.put(soundIds[i], volumes[i]);
+        return map;
+    }
+
+    private static Map<String, SoundPolicy> copyPolicies(Map<String, SoundPolicy> source) {
+        if (source == null || source.isEmpty()) return Collections.emptyMap();
+        TreeMap<String, SoundPolicy> copy = new TreeMap<>();
+        for (Map.Entry<String, SoundPolicy> entry : source.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) continue;
+            SoundPolicy policy = entry.getValue().normalized();
+            if (!policy.isDefault()) copy.put(entry.getKey(), policy);
+        }
+        return copy.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(copy);
     }
 
-    Map<String, Float> getSoundVolumes() {
-        return soundVolumes;
+    private static Map<String, Float> copyGroupVolumes(Map<String, Float> source) {
+        if (source == null || source.isEmpty()) return Collections.emptyMap();
+        TreeMap<String, Float> copy = new TreeMap<>();
+        for (Map.Entry<String, Float> entry : source.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) continue;
+            float volume = clampVolume(entry.getValue());
+            // A group at full volume changes nothing, so it is not stored
+            if (Math.abs(volume - DEFAULT_VOLUME) > 0.0001f) copy.put(entry.getKey(), volume);
+        }
+        return copy.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(copy);
     }
 
     private static float clampVolume(float volume) {
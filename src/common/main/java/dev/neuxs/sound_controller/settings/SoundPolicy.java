@@ -0,0 +1,68 @@
+package dev.neuxs.sound_controller.settings;
+
+import java.util.Objects;
+
+public final class SoundPolicy {
+    public static final SoundPolicy NONE = new SoundPolicy();
+
+    private int maxInstances = 0;
+    private int minIntervalMs = 0;
+    // Above 0, the sound may also use the voices the budget holds back from default and lower priorities
+    private int priority = 0;
+    private boolean stream = false;
+
+    private SoundPolicy() {}
+
+    public static SoundPolicy of(int maxInstances, int minIntervalMs, int priority, boolean stream) {
+        SoundPolicy policy = new SoundPolicy();
+        policy.maxInstances = maxInstances;
+        policy.minIntervalMs = minIntervalMs;
+        policy.priority = priority;
+        policy.stream = stream;
+        return policy.normalized();
+    }
+
+    // 0 means no cap
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+    // 0 means the sound may re-trigger immediately
+    public int getMinIntervalMs() {
+        return minIntervalMs;
+    }
+
+    // Higher wins when the voice budget is full; 0 is the default
+    public int getPriority() {
+        return priority;
+    }
+
+    // Played through a streamed source instead of a fully decoded buffer
+    public boolean isStream() {
+        return stream;
+    }
+
+    public boolean isUnrestricted() {
+        return maxInstances == 0 && minIntervalMs == 0;
+    }
+
+    public boolean isDefault() {
+        return isUnrestricted() && priority == 0 && !stream;
+    }
+
+    SoundPolicy normalized() {
+        if (maxInstances >= 0 && minIntervalMs >= 0) return isDefault() ? NONE : this;
+        return of(Math.max(0, maxInstances), Math.max(0, minIntervalMs), priority, stream);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SoundPolicy other && maxInstances == other.maxInstances
+                && minIntervalMs == other.minIntervalMs && priority == other.priority && stream == other.stream;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxInstances, minIntervalMs, priority, stream);
+    }
+}
@@ -0,0 +1,91 @@
+package dev.neuxs.sound_controller.settings;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Collects volume edits that are applied as one config version with one save.
+// Scales are resolved against the snapshot being replaced, so concurrent edits are never lost.
+public final class VolumeBatch {
+    private final Map<String, Edit> edits = new LinkedHashMap<>();
+
+    VolumeBatch() {}
+
+    public VolumeBatch set(String soundId, float volume) {
+        Edit edit = edit(soundId);
+        edit.reset = false;
+        edit.base = volume;
+        edit.factor = 1.0f;
+        return this;
+    }
+
+    public VolumeBatch setAll(Collection<String> soundIds, float volume) {
+        for (String soundId : soundIds) set(soundId, volume);
+        return this;
+    }
+
+    public VolumeBatch scale(String soundId, float factor) {
+        edit(soundId).factor *= factor;
+        return this;
+    }
+
+    public VolumeBatch scaleAll(Collection<String> soundIds, float factor) {
+        for (String soundId : soundIds) scale(soundId, factor);
+        return this;
+    }
+
+    // Drops the explicit volume, so the sound falls back to its rule or the default
+    public VolumeBatch reset(String soundId) {
+        Edit edit = edit(soundId);
+        edit.reset = true;
+        edit.base = null;
+        edit.factor = 1.0f;
+        return this;
+    }
+
+    public VolumeBatch resetAll(Collection<String> soundIds) {
+        for (String soundId : soundIds) reset(soundId);
+        return this;
+    }
+
+    public int size() {
+        return edits.size();
+    }
+
+    // Returns how many sounds changed
+    public int commit() {
+        return SettingsManager.applyBatch(this);
+    }
+
+    Map<String, Float> resolve(SoundConfig current) {
+        Map<String, Float> changes = new HashMap<>(edits.size() * 2);
+        for (Map.Entry<String, Edit> entry : edits.entrySet()) {
+            String soundId = entry.getKey();
+            Edit edit = entry.getValue();
+            if (edit.reset && edit.factor == 1.0f) {
+                if (current.contains(soundId)) changes.put(soundId, null);
+                continue;
+            }
+
+            float base;
+            if (edit.base != null) base = edit.base;
+            else if (edit.reset) base = current.getInheritedVolume(soundId);
+            else base = current.getVolume(soundId);
+            float volume = Math.max(0.0f, Math.min(1.0f, base * edit.factor));
+            if (Math.abs(current.getVolume(soundId) - volume) > 0.0001f) changes.put(soundId, volume);
+        }
+        return changes;
+    }
+
+    private Edit edit(String soundId) {
+        return edits.computeIfAbsent(Objects.requireNonNull(soundId, "soundId cannot be null"), id -> new Edit());
+    }
+
+    private static final class Edit {
+        private boolean reset = false;
+        private Float base = null;
+        private float factor = 1.0f;
+    }
+}
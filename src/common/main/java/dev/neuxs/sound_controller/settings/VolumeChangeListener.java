@@ -0,0 +1,12 @@
+package dev.neuxs.sound_controller.settings;
+
+import java.util.Collection;
+
+@FunctionalInterface
+public interface VolumeChangeListener {
+    /**
+     * Called after a new snapshot has been published.
+     * {@code changedIds} is {@code null} when the whole config was replaced.
+     */
+    void onVolumesChanged(SoundConfig snapshot, Collection<String> changedIds);
+}
@@ -0,0 +1,43 @@
+package dev.neuxs.sound_controller.settings;
+
+import java.util.Objects;
+
+public final class VolumeRule {
+    static final String REGEX_PREFIX = "regex:";
+
+    // A glob such as "*:sounds/**/footstep*", or a regular expression prefixed with "regex:"
+    private String match;
+    private float volume = 1.0f;
+
+    private VolumeRule() {}
+
+    public static VolumeRule of(String match, float volume) {
+        VolumeRule rule = new VolumeRule();
+        rule.match = Objects.requireNonNull(match, "match cannot be null");
+        rule.volume = volume;
+        return rule;
+    }
+
+    public String getMatch() {
+        return match;
+    }
+
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof VolumeRule other && Objects.equals(match, other.match) && Float.compare(volume, other.volume) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(match, volume);
+    }
+
+    @Override
+    public String toString() {
+        return match + " -> " + volume;
+    }
+}
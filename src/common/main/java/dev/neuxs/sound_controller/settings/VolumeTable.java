@@ -0,0 +1,134 @@
+package dev.neuxs.sound_controller.settings;
+
+import dev.neuxs.sound_controller.utils.SoundSlots;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+public class VolumeTable {
+    private static final float DEFAULT_VOLUME = 1.0f;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static volatile float[] volumes = newTable(INITIAL_CAPACITY);
+    private static volatile SoundConfig boundConfig = null;
+    // Slots below this were filled by the last bind or swap; later ones were filled one at a time as they were assigned
+    private static int boundSlotCount = 0;
+    private static final Object tableLock = new Object();
+
+    public static float get(int slot) {
+        float[] table = volumes;
+        return slot < table.length ? table[slot] : DEFAULT_VOLUME;
+    }
+
+    public static void onSlotAssigned(int slot, String soundId) {
+        synchronized (tableLock) {
+            SoundConfig config = boundConfig;
+            store(slot, config != null ? config.getEffectiveVolume(soundId) : DEFAULT_VOLUME);
+        }
+    }
+
+    static void bind(SoundConfig config) {
+        synchronized (tableLock) {
+            SoundConfig bound = boundConfig;
+            if (bound != null && config != null && bound.getVersion() > config.getVersion()) config = bound;
+            boundConfig = config;
+            Prepared prepared = prepare(config);
+            volumes = prepared.volumes;
+            boundSlotCount = prepared.slotCount;
+        }
+    }
+
+    // Computes a complete table for a config without installing it, so a later swap costs no per-sound work
+    static Prepared prepare(SoundConfig config) {
+        int slotCount = SoundSlots.getSlotCount();
+        float[] table = newTable(Math.max(volumes.length, slotCount));
+        if (config != null) fill(table, config, SoundSlots.UNASSIGNED + 1, slotCount);
+        return new Prepared(config, table, slotCount);
+    }
+
+    // Installs a prepared table and returns the one it replaced. Only slots assigned after the
+    // prepared table was built are computed here.
+    static Prepared swap(SoundConfig config, Prepared incoming) {
+        synchronized (tableLock) {
+            SoundConfig bound = boundConfig;
+            Prepared outgoing = new Prepared(bound, volumes, boundSlotCount);
+            // Writers don't take the profile lock, so one that built on the incoming snapshot may have published into
+            // the outgoing table before this swap; its newer snapshot already holds the switch, so the table follows it
+            boolean overtaken = bound != null && config != null && bound.getVersion() > config.getVersion();
+            if (overtaken) config = bound;
+
+            int slotCount = SoundSlots.getSlotCount();
+            float[] table = incoming.volumes;
+            if (overtaken || incoming.slotCount < slotCount) {
+                if (table.length < slotCount) {
+                    float[] grown = Arrays.copyOf(table, Math.max(slotCount, table.length * 2));
+                    Arrays.fill(grown, table.length, grown.length, DEFAULT_VOLUME);
+                    table = grown;
+                }
+                fill(table, config, overtaken ? 0 : incoming.slotCount, slotCount);
+            }
+            boundConfig = config;
+            boundSlotCount = slotCount;
+            volumes = table;
+            return outgoing;
+        }
+    }
+
+    private static void fill(float[] table, SoundConfig config, int fromSlot, int toSlot) {
+        for (int slot = Math.max(fromSlot, SoundSlots.UNASSIGNED + 1); slot < toSlot; slot++) {
+            String soundId = SoundSlots.idOf(slot);
+            if (soundId != null) table[slot] = config.getEffectiveVolume(soundId);
+        }
+    }
+
+    static void update(SoundConfig config, Collection<String> soundIds) {
+        synchronized (tableLock) {
+            SoundConfig bound = boundConfig;
+            // Writers may finish out of order; the newest snapshot already contains every older edit
+            if (bound == null || config.getVersion() > bound.getVersion()) {
+                bound = config;
+                boundConfig = config;
+            }
+
+            for (String soundId : soundIds) {
+                int slot = SoundSlots.findSlot(soundId);
+                if (slot != SoundSlots.UNASSIGNED) store(slot, bound.getEffectiveVolume(soundId));
+            }
+        }
+    }
+
+    private static void store(int slot, float volume) {
+        float[] table = volumes;
+        if (slot >= table.length) {
+            int newLength = table.length;
+            while (newLength <= slot) newLength *= 2;
+            float[] grown = Arrays.copyOf(table, newLength);
+            Arrays.fill(grown, table.length, newLength, DEFAULT_VOLUME);
+            table = grown;
+        }
+        table[slot] = volume;
+        volumes = table;
+    }
+
+    static final class Prepared {
+        private final SoundConfig source;
+        private final float[] volumes;
+        private final int slotCount;
+
+        private Prepared(SoundConfig source, float[] volumes, int slotCount) {
+            this.source = source;
+            this.volumes = volumes;
+            this.slotCount = slotCount;
+        }
+
+        boolean isFor(SoundConfig config) {
+            return source == config;
+        }
+    }
+
+    private static float[] newTable(int length) {
+        float[] table = new float[length];
+        Arrays.fill(table, DEFAULT_VOLUME);
+        return table;
+    }
+}
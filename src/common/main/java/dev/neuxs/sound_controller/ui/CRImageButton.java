@@ -11,18 +11,29 @@ import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Scaling;
 import de.pottgames.tuningfork.SoundBuffer;
 import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.audio.SoundBufferCache;
 import finalforeach.cosmicreach.GameAssetLoader;
 import finalforeach.cosmicreach.audio.SoundManager;
 import finalforeach.cosmicreach.ui.GameStyles;
 
 public class CRImageButton extends Button {
 
-    public static SoundBuffer onHoverSound;
-    public static SoundBuffer onClickSound;
+    private static final class Sounds {
+        private static final SoundBuffer onHoverSound = SoundManager.INSTANCE.loadSound(GameAssetLoader.loadAsset("sounds/ui/e-button-hover.ogg"));
+        private static final SoundBuffer onClickSound = SoundManager.INSTANCE.loadSound(GameAssetLoader.loadAsset("sounds/ui/e-button-click.ogg"));
 
-    static {
-        onHoverSound = SoundManager.INSTANCE.loadSound(GameAssetLoader.loadAsset("sounds/ui/e-button-hover.ogg"));
-        onClickSound = SoundManager.INSTANCE.loadSound(GameAssetLoader.loadAsset("sounds/ui/e-button-click.ogg"));
+        static {
+            SoundBufferCache.pin(onHoverSound);
+            SoundBufferCache.pin(onClickSound);
+        }
+    }
+
+    public static SoundBuffer getOnHoverSound() {
+        return Sounds.onHoverSound;
+    }
+
+    public static SoundBuffer getOnClickSound() {
+        return Sounds.onClickSound;
     }
 
     public CRImageButton(TextureRegion imageRegion) {
@@ -52,11 +63,11 @@ public class CRImageButton extends Button {
 
         if (event instanceof InputEvent ie) {
             if (ie.getType() == InputEvent.Type.enter && !this.isDisabled()) {
-                SoundManager.INSTANCE.playSound(onHoverSound);
+                SoundManager.INSTANCE.playSound(getOnHoverSound());
             }
         } else if (event instanceof ChangeListener.ChangeEvent) {
             if (!this.isDisabled()) {
-                SoundManager.INSTANCE.playSound(onClickSound);
+                SoundManager.INSTANCE.playSound(getOnClickSound());
                 this.onClick();
                 event.handle();
             }
@@ -8,13 +8,18 @@ import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
 import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
-import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextField;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.ScreenUtils;
 import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.audio.PlaybackStats;
 import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import dev.neuxs.sound_controller.settings.VolumeBatch;
+import dev.neuxs.sound_controller.settings.VolumeChangeListener;
 import dev.neuxs.sound_controller.utils.SoundHelper;
+import dev.neuxs.sound_controller.utils.SoundSearchIndex;
+import finalforeach.cosmicreach.Threads;
 import finalforeach.cosmicreach.gamestates.GameState;
 import finalforeach.cosmicreach.lang.Lang;
 import finalforeach.cosmicreach.settings.INumberSetting;
@@ -29,22 +34,40 @@ import finalforeach.cosmicreach.ui.widgets.CRSlider;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 public class SoundControllerMenu extends GameState {
     private final GameState previousGameState;
     private final NumberFormat intFormat = new DecimalFormat("#");
     private final NumberFormat percentFormat = Lang.getPercentFormatter();
-    private Table soundListTable;
+    private VirtualSoundList soundList;
     private ScrollPane scrollPane;
     private TextField searchField;
     private List<String> allSoundIdsSorted;
+    private SoundSearchIndex searchIndex;
+    private SoundTree soundTree;
     private CRButton backButton;
     private CRSlider soundSlider;
     private CRSlider musicSlider;
     private CRSlider musicFreqSlider;
+    private CRButton profileButton;
     private CRLabel searchLabel;
+    private CRLabel statsLabel;
+    private CRLabel bulkLabel;
+    private final List<CRButton> bulkButtons = new ArrayList<>();
+    private CRButton undoButton;
+    // The sounds that have a row in the list, which bulk actions apply to
+    private List<String> listedSoundIds = Collections.emptyList();
+    // A bulk action over more than a handful of sounds waits for a second click on the same button
+    private BulkButton armedButton = null;
+    private VolumeBatch undoBatch = null;
+    private String undoProfile = null;
+    private float statsRefreshTimer = 0f;
+    private final VolumeChangeListener volumeListener = this::onVolumesChanged;
+    private volatile boolean closed = false;
     private static final float PADDING = 10f;
     private static final float TOP_BAR_HEIGHT = 50f;
     private static final float SEARCH_BAR_HEIGHT = 30f;
@@ -53,6 +76,13 @@ public class SoundControllerMenu extends GameState {
     private static final float INDIVIDUAL_SLIDER_WIDTH = 250f;
     private static final float ELEMENT_SPACING = 5f;
     private static final float BACK_BUTTON_RIGHT_MARGIN = 20f;
+    private static final float STATS_LABEL_WIDTH = 480f;
+    private static final float STATS_REFRESH_SECONDS = 0.5f;
+    private static final int PROFILE_CYCLE_KEY = Input.Keys.F6;
+    private static final float BULK_BAR_HEIGHT = 30f;
+    private static final float BULK_BUTTON_WIDTH = 110f;
+    private static final float BULK_LABEL_WIDTH = 260f;
+    private static final int BULK_CONFIRM_THRESHOLD = 10;
 
     public SoundControllerMenu(GameState previousGameState) {
         this.previousGameState = previousGameState;
@@ -64,6 +94,7 @@ public class SoundControllerMenu extends GameState {
         Gdx.input.setInputProcessor(this.stage);
 
         SettingsManager.initialize();
+        SettingsManager.addVolumeChangeListener(volumeListener);
 
         float currentX = PADDING;
         float topY = stage.getHeight() - PADDING - TOP_BAR_HEIGHT;
@@ -72,7 +103,7 @@ public class SoundControllerMenu extends GameState {
             @Override
             public void onClick() {
                 super.onClick();
-                GameState.switchToGameState(previousGameState);
+                returnToPreviousState();
             }
         };
         backButton.setBounds(currentX, topY, BUTTON_WIDTH, TOP_BAR_HEIGHT);
@@ -92,6 +123,19 @@ public class SoundControllerMenu extends GameState {
         musicFreqSlider = this.createSettingsCRSlider(SoundSettings.musicFrequency, "Music Freq (min): ", 20.0f, 1.0f, this.intFormat);
         musicFreqSlider.setBounds(currentX, topY, SLIDER_WIDTH, TOP_BAR_HEIGHT);
         stage.addActor(musicFreqSlider);
+        currentX += SLIDER_WIDTH + ELEMENT_SPACING;
+
+        profileButton = new CRButton("") {
+            @Override
+            public void onClick() {
+                super.onClick();
+                SettingsManager.cycleProfile();
+                updateProfileButton();
+            }
+        };
+        updateProfileButton();
+        profileButton.setBounds(currentX, topY, SLIDER_WIDTH, TOP_BAR_HEIGHT);
+        stage.addActor(profileButton);
 
         float searchY = topY - PADDING - SEARCH_BAR_HEIGHT;
         currentX = PADDING;
@@ -104,16 +148,42 @@ public class SoundControllerMenu extends GameState {
         currentX += searchLabel.getWidth() + ELEMENT_SPACING;
 
         searchField = new TextField("", GameStyles.textstyle);
-        searchField.setMessageText("Search Sounds...");
+        searchField.setMessageText("Search Sounds... (namespace:folder/ to scope)");
         searchField.setTextFieldListener((textField, c) -> filterAndRebuildSoundList(textField.getText()));
-        float searchFieldWidth = stage.getWidth() - currentX - PADDING;
+        float searchFieldWidth = stage.getWidth() - currentX - PADDING - STATS_LABEL_WIDTH - ELEMENT_SPACING;
         searchField.setBounds(currentX, searchY, searchFieldWidth, SEARCH_BAR_HEIGHT);
         stage.addActor(searchField);
 
-        soundListTable = new Table();
-        soundListTable.top().left();
+        statsLabel = new CRLabel("");
+        updateStatsLabel();
+        statsLabel.setEllipsis("...");
+        statsLabel.setBounds(stage.getWidth() - PADDING - STATS_LABEL_WIDTH, searchY, STATS_LABEL_WIDTH, SEARCH_BAR_HEIGHT);
+        stage.addActor(statsLabel);
+
+        bulkLabel = new CRLabel("");
+        bulkLabel.setEllipsis("...");
+        stage.addActor(bulkLabel);
+        addBulkButton("Mute", (batch, soundIds) -> batch.setAll(soundIds, 0.0f));
+        addBulkButton("Halve", (batch, soundIds) -> batch.scaleAll(soundIds, 0.5f));
+        addBulkButton("Reset", (batch, soundIds) -> batch.resetAll(soundIds));
+        undoButton = new CRButton("Undo") {
+            @Override
+            public void onClick() {
+                super.onClick();
+                undoBulkAction();
+            }
+        };
+        bulkButtons.add(undoButton);
+        stage.addActor(undoButton);
+        updateUndoButton();
+        float bulkY = searchY - PADDING - BULK_BAR_HEIGHT;
+        layoutBulkBar(bulkY);
+        updateBulkLabel();
 
-        scrollPane = new ScrollPane(soundListTable, GameStyles.styleTooltip.background == null
+        soundList = new VirtualSoundList(INDIVIDUAL_SLIDER_WIDTH, volume -> formatValue(volume, percentFormat, null));
+        soundList.setRowsChangedListener(this::onListedRowsChanged);
+
+        scrollPane = new ScrollPane(soundList, GameStyles.styleTooltip.background == null
                 ? new ScrollPane.ScrollPaneStyle()
                 : new ScrollPane.ScrollPaneStyle(GameStyles.styleTooltip.background, null, null, null, null));
         scrollPane.setFadeScrollBars(false);
@@ -121,7 +191,7 @@ public class SoundControllerMenu extends GameState {
         scrollPane.setForceScroll(false, true);
         scrollPane.setFlickScroll(false);
 
-        float scrollPaneTop = searchY - PADDING;
+        float scrollPaneTop = bulkY - PADDING;
         float scrollPaneBottom = PADDING;
         float scrollPaneHeight = scrollPaneTop - scrollPaneBottom;
         scrollPane.setBounds(PADDING, scrollPaneBottom, stage.getWidth() - 2 * PADDING, scrollPaneHeight);
@@ -144,20 +214,19 @@ public class SoundControllerMenu extends GameState {
 
         stage.addActor(scrollPane);
 
-        try {
-            allSoundIdsSorted = new ArrayList<>(SoundHelper.getAllSoundIdentifiers().keySet());
-            Collections.sort(allSoundIdsSorted);
-        } catch (Exception e) {
-            Mod.LOGGER.error("Error getting sound identifiers: {}", e.getMessage(), e);
-            allSoundIdsSorted = new ArrayList<>();
-            if (soundListTable != null) {
-                soundListTable.clearChildren();
-                soundListTable.add(new CRLabel("Error loading sound list.", GameStyles.styleText)).pad(10);
-            }
+        if (SettingsManager.isReady()) loadSoundList();
+        else {
+            soundList.showMessage("Loading sounds...");
+            SettingsManager.whenReady().whenComplete((config, error) -> {
+                //noinspection deprecation
+                Threads.runOnMainThread(() -> {
+                    if (closed) return;
+                    if (error != null) soundList.showMessage("Sound Controller failed to start. See the log for details.");
+                    else loadSoundList();
+                });
+            });
         }
 
-        filterAndRebuildSoundList("");
-
         this.stage.setScrollFocus(scrollPane);
 
         stage.addListener(new InputListener() {
@@ -195,6 +264,9 @@ public class SoundControllerMenu extends GameState {
         currentX += SLIDER_WIDTH + ELEMENT_SPACING;
 
         musicFreqSlider.setBounds(currentX, topY, SLIDER_WIDTH, TOP_BAR_HEIGHT);
+        currentX += SLIDER_WIDTH + ELEMENT_SPACING;
+
+        profileButton.setBounds(currentX, topY, SLIDER_WIDTH, TOP_BAR_HEIGHT);
 
         float searchY = topY - PADDING - SEARCH_BAR_HEIGHT;
         currentX = PADDING;
@@ -204,15 +276,19 @@ public class SoundControllerMenu extends GameState {
         searchLabel.setPosition(currentX, searchY + (SEARCH_BAR_HEIGHT - searchLabel.getHeight()) / 2f - searchLabelDim.y / 2);
         currentX += searchLabel.getWidth() + ELEMENT_SPACING;
 
-        float searchFieldWidth = stage.getWidth() - currentX - PADDING;
+        float searchFieldWidth = stage.getWidth() - currentX - PADDING - STATS_LABEL_WIDTH - ELEMENT_SPACING;
         searchField.setBounds(currentX, searchY, searchFieldWidth, SEARCH_BAR_HEIGHT);
+        statsLabel.setBounds(stage.getWidth() - PADDING - STATS_LABEL_WIDTH, searchY, STATS_LABEL_WIDTH, SEARCH_BAR_HEIGHT);
 
-        float scrollPaneTop = searchY - PADDING;
+        float bulkY = searchY - PADDING - BULK_BAR_HEIGHT;
+        layoutBulkBar(bulkY);
+
+        float scrollPaneTop = bulkY - PADDING;
         float scrollPaneBottom = PADDING;
         float scrollPaneHeight = scrollPaneTop - scrollPaneBottom;
         scrollPane.setBounds(PADDING, scrollPaneBottom, stage.getWidth() - 2 * PADDING, scrollPaneHeight);
 
-        soundListTable.invalidateHierarchy();
+        soundList.invalidateHierarchy();
         scrollPane.layout();
     }
 
@@ -221,9 +297,20 @@ public class SoundControllerMenu extends GameState {
         super.render();
         this.stage.act(Gdx.graphics.getDeltaTime());
 
+        statsRefreshTimer += Gdx.graphics.getDeltaTime();
+        if (statsRefreshTimer >= STATS_REFRESH_SECONDS) {
+            statsRefreshTimer = 0f;
+            updateStatsLabel();
+        }
+
+        if (Gdx.input.isKeyJustPressed(PROFILE_CYCLE_KEY) && this.stage.getKeyboardFocus() != searchField) {
+            SettingsManager.cycleProfile();
+            updateProfileButton();
+        }
+
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE) || Gdx.input.isButtonJustPressed(Input.Buttons.BACK)) {
             if (this.stage.getKeyboardFocus() == searchField) this.stage.setKeyboardFocus(null);
-            else GameState.switchToGameState(previousGameState);
+            else returnToPreviousState();
         }
 
         ScreenUtils.clear(0.145F, 0.078F, 0.153F, 1.0F, true);
@@ -239,6 +326,123 @@ public class SoundControllerMenu extends GameState {
         Gdx.gl.glEnable(GL20.GL_CULL_FACE);
     }
 
+    private void updateStatsLabel() {
+        statsLabel.setText(String.format("Skipped: %d muted, %d limited, %d merged, %d culled, %d over budget",
+                PlaybackStats.MUTED_SKIPS.getTotal(), PlaybackStats.LIMITED_SKIPS.getTotal(),
+                PlaybackStats.COALESCED.getTotal(), PlaybackStats.CULLED.getTotal(), PlaybackStats.VOICE_REJECTED.getTotal()));
+    }
+
+    private void addBulkButton(String text, BiConsumer<VolumeBatch, List<String>> action) {
+        BulkButton button = new BulkButton(text, action);
+        bulkButtons.add(button);
+        stage.addActor(button);
+    }
+
+    private void onBulkClick(BulkButton button) {
+        List<String> targets = listedSoundIds;
+        if (targets.isEmpty()) return;
+        if (targets.size() > BULK_CONFIRM_THRESHOLD && armedButton != button) {
+            disarmBulkButton();
+            armedButton = button;
+            button.setText("Confirm (" + targets.size() + ")");
+            return;
+        }
+        disarmBulkButton();
+
+        // The undo batch puts back each target's explicit volume, or drops the entry if it had none
+        SoundConfig before = SettingsManager.getSnapshot();
+        if (before == null) return;
+        VolumeBatch undo = SettingsManager.batch();
+        for (String soundId : targets) {
+            if (before.contains(soundId)) undo.set(soundId, before.getVolume(soundId));
+            else undo.reset(soundId);
+        }
+
+        // Every listed sound changes under one config version and one save
+        VolumeBatch batch = SettingsManager.batch();
+        button.action.accept(batch, targets);
+        if (batch.commit() == 0) return;
+        undoBatch = undo;
+        undoProfile = SettingsManager.getActiveProfile();
+        updateUndoButton();
+    }
+
+    private void undoBulkAction() {
+        disarmBulkButton();
+        if (undoBatch == null) return;
+        // Volumes captured under another profile don't belong to the active one
+        if (SettingsManager.getActiveProfile().equals(undoProfile)) undoBatch.commit();
+        undoBatch = null;
+        undoProfile = null;
+        updateUndoButton();
+    }
+
+    private void disarmBulkButton() {
+        if (armedButton == null) return;
+        armedButton.setText(armedButton.baseText);
+        armedButton = null;
+    }
+
+    private void updateUndoButton() {
+        undoButton.setVisible(undoBatch != null);
+    }
+
+    private void onListedRowsChanged() {
+        listedSoundIds = soundList.getListedSoundIds();
+        // A confirmation only counts for the rows it was asked about
+        disarmBulkButton();
+        updateBulkLabel();
+    }
+
+    private void layoutBulkBar(float bulkY) {
+        float currentX = PADDING;
+        bulkLabel.setBounds(currentX, bulkY, BULK_LABEL_WIDTH, BULK_BAR_HEIGHT);
+        currentX += BULK_LABEL_WIDTH + ELEMENT_SPACING;
+        for (CRButton button : bulkButtons) {
+            button.setBounds(currentX, bulkY, BULK_BUTTON_WIDTH, BULK_BAR_HEIGHT);
+            currentX += BULK_BUTTON_WIDTH + ELEMENT_SPACING;
+        }
+    }
+
+    private void updateBulkLabel() {
+        bulkLabel.setText("Apply to " + listedSoundIds.size() + " listed sound(s):");
+    }
+
+    private void updateProfileButton() {
+        profileButton.setText("Profile: " + SettingsManager.getActiveProfile());
+    }
+
+    private void loadSoundList() {
+        try {
+            allSoundIdsSorted = new ArrayList<>(SoundHelper.getAllSoundIdentifiers().keySet());
+            Collections.sort(allSoundIdsSorted);
+            searchIndex = new SoundSearchIndex(allSoundIdsSorted);
+            soundTree = SoundTree.build(allSoundIdsSorted);
+        } catch (Exception e) {
+            Mod.LOGGER.error("Error getting sound identifiers: {}", e.getMessage(), e);
+            allSoundIdsSorted = new ArrayList<>();
+            searchIndex = new SoundSearchIndex(allSoundIdsSorted);
+            soundTree = SoundTree.EMPTY;
+            if (soundList != null) soundList.showMessage("Error loading sound list.");
+        }
+
+        filterAndRebuildSoundList(searchField.getText());
+    }
+
+    private void returnToPreviousState() {
+        closed = true;
+        SettingsManager.removeVolumeChangeListener(volumeListener);
+        GameState.switchToGameState(previousGameState);
+    }
+
+    private void onVolumesChanged(SoundConfig snapshot, Collection<String> changedIds) {
+        //noinspection deprecation
+        Threads.runOnMainThread(() -> {
+            soundList.refresh(snapshot, changedIds);
+            if (changedIds == null) updateProfileButton();
+        });
+    }
+
     private CRSlider createSettingsCRSlider(final INumberSetting setting, final String prefix, float max, float stepSize, final NumberFormat valueTextFormat) {
         float initialValue = setting.getValueAsFloat();
         String initialText = prefix + formatValue(initialValue, valueTextFormat, setting);
@@ -272,53 +476,16 @@ public class SoundControllerMenu extends GameState {
     }
 
     private void filterAndRebuildSoundList(String filterText) {
-        soundListTable.clearChildren(true);
+        if (allSoundIdsSorted == null && !SettingsManager.isReady()) return;
 
         if (allSoundIdsSorted == null || allSoundIdsSorted.isEmpty()) {
-            soundListTable.add(new CRLabel(allSoundIdsSorted == null ? "Sound list error." : "No sounds found.", GameStyles.styleText)).pad(10);
+            soundList.showMessage(allSoundIdsSorted == null ? "Sound list error." : "No sounds found.");
             return;
         }
 
-        String filterLower = filterText.toLowerCase().trim();
-        boolean hasFilter = !filterLower.isEmpty();
-
-        final float stepSize = 0.01f;
-
-        for (final String soundId : allSoundIdsSorted) {
-            if (hasFilter && !soundId.toLowerCase().contains(filterLower)) continue;
-
-            Table soundRowTable = new Table();
-
-            CRLabel soundLabel = new CRLabel(soundId);
-            soundLabel.setEllipsis("...");
-            soundRowTable.add(soundLabel).growX().left().padRight(ELEMENT_SPACING);
-
-            float initialVolume = SettingsManager.getVolume(soundId);
-
-            CRSlider individualSlider = new CRSlider("", 0.0f, 1.0f, stepSize, false) {
-                @Override
-                protected void onChangeEvent(ChangeListener.ChangeEvent event) {
-                    float currentValue = this.getValue();
-                    float storedValue = SettingsManager.getVolume(soundId);
-
-                    if (Math.abs(currentValue - storedValue) > stepSize / 10.0f) {
-                        SettingsManager.setVolume(soundId, currentValue);
-                        this.setText(formatValue(SettingsManager.getVolume(soundId), percentFormat, null));
-                    } else {
-                        this.setText(formatValue(storedValue, percentFormat, null));
-                    }
-                }
-            };
-
-            individualSlider.setValue(initialVolume);
-            individualSlider.setText(formatValue(initialVolume, percentFormat, null));
-
-            soundRowTable.add(individualSlider).width(INDIVIDUAL_SLIDER_WIDTH).right();
-
-            soundListTable.add(soundRowTable).expandX().fillX().pad(2f).row();
-        }
-
-        soundListTable.invalidateHierarchy();
+        // Browsing shows the group tree; any query switches to the flat ranked results
+        if (filterText == null || filterText.isBlank()) soundList.setTree(soundTree);
+        else soundList.setSoundIds(searchIndex.search(filterText));
 
         if (scrollPane != null) {
             float scrollPercent = scrollPane.getScrollPercentY();
@@ -326,4 +493,21 @@ public class SoundControllerMenu extends GameState {
             scrollPane.setScrollPercentY(scrollPercent);
         }
     }
+
+    private class BulkButton extends CRButton {
+        private final String baseText;
+        private final BiConsumer<VolumeBatch, List<String>> action;
+
+        private BulkButton(String text, BiConsumer<VolumeBatch, List<String>> action) {
+            super(text);
+            this.baseText = text;
+            this.action = action;
+        }
+
+        @Override
+        public void onClick() {
+            super.onClick();
+            onBulkClick(this);
+        }
+    }
 }
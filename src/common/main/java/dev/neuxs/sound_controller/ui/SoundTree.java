@@ -0,0 +1,115 @@
+package dev.neuxs.sound_controller.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+// Sound IDs grouped by namespace and folder, stored in pre-order so a collapsed group skips its subtree in one jump
+class SoundTree {
+    static final SoundTree EMPTY = new SoundTree(Collections.emptyList());
+
+    private final List<Node> nodes;
+
+    static final class Node {
+        final String key;
+        final String label;
+        final int depth;
+        final boolean group;
+        private int soundCount;
+        private int end;
+
+        private Node(String key, String label, int depth, boolean group) {
+            this.key = key;
+            this.label = label;
+            this.depth = depth;
+            this.group = group;
+        }
+
+        int getSoundCount() {
+            return soundCount;
+        }
+    }
+
+    private SoundTree(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    // Expects the IDs sorted, which keeps every shared prefix contiguous
+    static SoundTree build(List<String> sortedIds) {
+        List<Node> nodes = new ArrayList<>();
+        Deque<Node> openGroups = new ArrayDeque<>();
+        Deque<Integer> leafCountsAtOpen = new ArrayDeque<>();
+        int leafCount = 0;
+
+        for (String soundId : sortedIds) {
+            int separator = soundId.indexOf(':');
+            if (separator < 0) {
+                closeGroupsUntil(openGroups, leafCountsAtOpen, null, nodes.size(), leafCount);
+                nodes.add(new Node(soundId, soundId, 0, false));
+                leafCount++;
+                continue;
+            }
+
+            List<String> chain = new ArrayList<>();
+            chain.add(soundId.substring(0, separator));
+            for (int slash = soundId.indexOf('/', separator + 1); slash >= 0; slash = soundId.indexOf('/', slash + 1)) {
+                chain.add(soundId.substring(0, slash + 1));
+            }
+
+            closeGroupsUntil(openGroups, leafCountsAtOpen, chain, nodes.size(), leafCount);
+            for (int depth = openGroups.size(); depth < chain.size(); depth++) {
+                String key = chain.get(depth);
+                Node group = new Node(key, groupLabel(key), depth, true);
+                nodes.add(group);
+                openGroups.push(group);
+                leafCountsAtOpen.push(leafCount);
+            }
+
+            nodes.add(new Node(soundId, soundId.substring(Math.max(separator, soundId.lastIndexOf('/')) + 1), chain.size(), false));
+            leafCount++;
+        }
+
+        closeGroupsUntil(openGroups, leafCountsAtOpen, null, nodes.size(), leafCount);
+        return new SoundTree(Collections.unmodifiableList(nodes));
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    Node get(int index) {
+        return nodes.get(index);
+    }
+
+    int[] visibleNodes(Set<String> expandedGroups) {
+        int[] visible = new int[nodes.size()];
+        int count = 0;
+        for (int i = 0; i < nodes.size(); ) {
+            Node node = nodes.get(i);
+            visible[count++] = i;
+            i = node.group && !expandedGroups.contains(node.key) ? node.end : i + 1;
+        }
+        return Arrays.copyOf(visible, count);
+    }
+
+    private static void closeGroupsUntil(Deque<Node> openGroups, Deque<Integer> leafCountsAtOpen, List<String> chain, int end, int leafCount) {
+        // A folder key carries its whole path, so a matching innermost group means every outer one matches too
+        while (!openGroups.isEmpty()) {
+            int depth = openGroups.size() - 1;
+            if (chain != null && depth < chain.size() && chain.get(depth).equals(openGroups.peek().key)) break;
+            Node group = openGroups.pop();
+            group.end = end;
+            group.soundCount = leafCount - leafCountsAtOpen.pop();
+        }
+    }
+
+    private static String groupLabel(String key) {
+        if (!key.endsWith("/")) return key;
+        int start = Math.max(key.indexOf(':'), key.lastIndexOf('/', key.length() - 2)) + 1;
+        return key.substring(start, key.length() - 1);
+    }
+}
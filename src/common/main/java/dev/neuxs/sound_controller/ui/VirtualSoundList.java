@@ -0,0 +1,271 @@
+package dev.neuxs.sound_controller.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Group;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.scenes.scene2d.ui.Cell;
+import com.badlogic.gdx.scenes.scene2d.ui.ScrollPane;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.scenes.scene2d.ui.WidgetGroup;
+import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import dev.neuxs.sound_controller.settings.SettingsManager;
+import dev.neuxs.sound_controller.settings.SoundConfig;
+import finalforeach.cosmicreach.ui.GameStyles;
+import finalforeach.cosmicreach.ui.widgets.CRLabel;
+import finalforeach.cosmicreach.ui.widgets.CRSlider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class VirtualSoundList extends WidgetGroup {
+    private static final float ROW_HEIGHT = 44f;
+    private static final float ROW_PADDING = 2f;
+    private static final float ELEMENT_SPACING = 5f;
+    private static final int OVERSCAN_ROWS = 4;
+    private static final float STEP_SIZE = 0.01f;
+    private static final float INDENT_WIDTH = 16f;
+
+    private final VolumeFormatter volumeFormatter;
+    private final float sliderWidth;
+    private final List<SoundRow> rowPool = new ArrayList<>();
+    private final CRLabel messageLabel = new CRLabel("", GameStyles.styleText);
+    private List<String> soundIds = Collections.emptyList();
+    private SoundTree tree = null;
+    private int[] visibleNodes = new int[0];
+    private final Set<String> expandedGroups = new HashSet<>();
+    private int boundFirstIndex = -1;
+    private int boundRowCount = -1;
+    private boolean rowsDirty = true;
+    private Runnable rowsChangedListener = () -> {};
+
+    public interface VolumeFormatter {
+        String format(float volume);
+    }
+
+    public VirtualSoundList(float sliderWidth, VolumeFormatter volumeFormatter) {
+        this.sliderWidth = sliderWidth;
+        this.volumeFormatter = volumeFormatter;
+        messageLabel.setVisible(false);
+        addActor(messageLabel);
+    }
+
+    public void setSoundIds(List<String> soundIds) {
+        this.soundIds = soundIds != null ? soundIds : Collections.emptyList();
+        this.tree = null;
+        messageLabel.setVisible(false);
+        rowsDirty = true;
+        invalidateHierarchy();
+        rowsChangedListener.run();
+    }
+
+    void setTree(SoundTree tree) {
+        this.tree = tree;
+        this.soundIds = Collections.emptyList();
+        visibleNodes = tree.visibleNodes(expandedGroups);
+        messageLabel.setVisible(false);
+        rowsDirty = true;
+        invalidateHierarchy();
+        rowsChangedListener.run();
+    }
+
+    public void showMessage(String message) {
+        this.soundIds = Collections.emptyList();
+        this.tree = null;
+        messageLabel.setText(message);
+        messageLabel.setVisible(true);
+        rowsDirty = true;
+        invalidateHierarchy();
+        rowsChangedListener.run();
+    }
+
+    // Called whenever the set of listed rows changes, including a group being expanded or collapsed
+    void setRowsChangedListener(Runnable listener) {
+        rowsChangedListener = listener != null ? listener : () -> {};
+    }
+
+    // Sounds that have a row in the list; sounds inside a collapsed group are not included
+    List<String> getListedSoundIds() {
+        if (tree == null) return soundIds;
+        List<String> listed = new ArrayList<>();
+        for (int index : visibleNodes) {
+            SoundTree.Node node = tree.get(index);
+            if (!node.group) listed.add(node.key);
+        }
+        return listed;
+    }
+
+    public void refresh(SoundConfig snapshot, Collection<String> changedIds) {
+        Collection<String> lookup = changedIds;
+        if (lookup != null && !(lookup instanceof Set) && lookup.size() > 16) lookup = new HashSet<>(lookup);
+
+        for (SoundRow row : rowPool) {
+            if (row.soundId == null) continue;
+            if (row.group) {
+                if (lookup == null) row.showVolume(snapshot.getGroupVolume(row.soundId));
+            } else if (lookup == null || lookup.contains(row.soundId)) row.showVolume(snapshot.getVolume(row.soundId));
+        }
+    }
+
+    private void toggleGroup(String groupKey) {
+        if (tree == null) return;
+        if (!expandedGroups.remove(groupKey)) expandedGroups.add(groupKey);
+        visibleNodes = tree.visibleNodes(expandedGroups);
+        rowsDirty = true;
+        invalidateHierarchy();
+        rowsChangedListener.run();
+    }
+
+    private int getRowCount() {
+        return tree != null ? visibleNodes.length : soundIds.size();
+    }
+
+    @Override
+    public float getPrefWidth() {
+        return 0f;
+    }
+
+    @Override
+    public float getPrefHeight() {
+        if (messageLabel.isVisible()) return messageLabel.getPrefHeight() + 20f;
+        return getRowCount() * ROW_HEIGHT;
+    }
+
+    @Override
+    public void layout() {
+        messageLabel.pack();
+        messageLabel.setPosition(10f, getHeight() - messageLabel.getHeight() - 10f);
+        rowsDirty = true;
+        bindVisibleRows();
+    }
+
+    @Override
+    public void act(float delta) {
+        super.act(delta);
+        bindVisibleRows();
+    }
+
+    private void bindVisibleRows() {
+        Group parent = getParent();
+        float scrollY = parent instanceof ScrollPane pane ? pane.getVisualScrollY() : 0f;
+        float viewportHeight = parent instanceof ScrollPane pane ? pane.getHeight() : getHeight();
+
+        int firstIndex = Math.max(0, (int) (scrollY / ROW_HEIGHT) - OVERSCAN_ROWS);
+        int rowCount = (int) Math.ceil(viewportHeight / ROW_HEIGHT) + 2 * OVERSCAN_ROWS;
+        if (!rowsDirty && firstIndex == boundFirstIndex && rowCount == boundRowCount) return;
+
+        while (rowPool.size() < rowCount) {
+            SoundRow row = new SoundRow();
+            rowPool.add(row);
+            addActor(row);
+        }
+
+        float width = getWidth();
+        float top = Math.max(getHeight(), getPrefHeight());
+        for (int i = 0; i < rowPool.size(); i++) {
+            SoundRow row = rowPool.get(i);
+            int index = firstIndex + i;
+
+            if (i >= rowCount || index >= getRowCount()) {
+                row.unbind();
+                continue;
+            }
+
+            if (tree != null) row.bind(tree.get(visibleNodes[index]));
+            else row.bind(soundIds.get(index), soundIds.get(index), 0, false);
+            row.setBounds(0f, top - (index + 1) * ROW_HEIGHT + ROW_PADDING, width, ROW_HEIGHT - 2 * ROW_PADDING);
+            row.validate();
+        }
+
+        boundFirstIndex = firstIndex;
+        boundRowCount = rowCount;
+        rowsDirty = false;
+    }
+
+    private class SoundRow extends Table {
+        private final CRLabel soundLabel = new CRLabel("");
+        private final Cell<CRLabel> labelCell;
+        private final CRSlider volumeSlider;
+        // A sound ID, or a group key when this row is a group header
+        private String soundId = null;
+        private boolean group = false;
+        private int depth = 0;
+        private boolean binding = false;
+
+        private SoundRow() {
+            soundLabel.setEllipsis("...");
+            soundLabel.addListener(new InputListener() {
+                @Override
+                public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+                    if (!group || soundId == null) return false;
+                    toggleGroup(soundId);
+                    return true;
+                }
+            });
+            volumeSlider = new CRSlider("", 0.0f, 1.0f, STEP_SIZE, false) {
+                @Override
+                protected void onChangeEvent(ChangeListener.ChangeEvent event) {
+                    if (binding || soundId == null) return;
+
+                    float currentValue = this.getValue();
+                    float storedValue = storedVolume();
+
+                    if (Math.abs(currentValue - storedValue) > STEP_SIZE / 10.0f) {
+                        if (group) SettingsManager.setGroupVolume(soundId, currentValue);
+                        else SettingsManager.setVolume(soundId, currentValue);
+                        this.setText(volumeFormatter.format(storedVolume()));
+                    } else {
+                        this.setText(volumeFormatter.format(storedValue));
+                    }
+                }
+            };
+
+            labelCell = add(soundLabel).growX().left().padRight(ELEMENT_SPACING);
+            add(volumeSlider).width(sliderWidth).right();
+        }
+
+        private void bind(SoundTree.Node node) {
+            String label = node.group
+                    ? (expandedGroups.contains(node.key) ? "[-] " : "[+] ") + node.label + " (" + node.getSoundCount() + ")"
+                    : node.label;
+            bind(node.key, label, node.depth, node.group);
+        }
+
+        private void bind(String newSoundId, String label, int newDepth, boolean isGroup) {
+            setVisible(true);
+            soundLabel.setText(label);
+            if (newDepth != depth) {
+                depth = newDepth;
+                labelCell.padLeft(newDepth * INDENT_WIDTH);
+                invalidate();
+            }
+            if (newSoundId.equals(soundId) && isGroup == group) return;
+
+            soundId = newSoundId;
+            group = isGroup;
+            showVolume(storedVolume());
+        }
+
+        private float storedVolume() {
+            return group ? SettingsManager.getGroupVolume(soundId) : SettingsManager.getVolume(soundId);
+        }
+
+        private void unbind() {
+            soundId = null;
+            setVisible(false);
+        }
+
+        private void showVolume(float volume) {
+            binding = true;
+            try {
+                if (Math.abs(volumeSlider.getValue() - volume) > 0.0001f) volumeSlider.setValue(volume);
+                volumeSlider.setText(volumeFormatter.format(volume));
+            } finally {
+                binding = false;
+            }
+        }
+    }
+}
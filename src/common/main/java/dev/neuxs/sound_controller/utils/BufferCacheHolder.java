@@ -0,0 +1,7 @@
+package dev.neuxs.sound_controller.utils;
+
+public interface BufferCacheHolder {
+    Object sound_controller$getCacheEntry();
+
+    void sound_controller$setCacheEntry(Object entry);
+}
@@ -0,0 +1,154 @@
+package dev.neuxs.sound_controller.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectSet;
+import dev.neuxs.sound_controller.Mod;
+import finalforeach.cosmicreach.GameAssetLoader;
+import finalforeach.cosmicreach.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SoundAssetScanner {
+    private static final String SOUND_PREFIX = "sounds/";
+    private static final String[] SOUND_EXTENSIONS = {".ogg", ".wav"};
+    private static final String MUSIC_PREFIX = "music/";
+    private static final String[] MUSIC_EXTENSIONS = {".json"};
+    private static final int MAX_PARSE_THREADS = 8;
+
+    // GameAssetLoader is not thread-safe, so assets are enumerated on the calling thread and only the music JSON is parsed in parallel
+    static Map<String, NamespaceScan> scan(Collection<String> namespaces) {
+        Map<String, NamespaceScan> results = new LinkedHashMap<>();
+        List<String> musicOwners = new ArrayList<>();
+        List<Callable<NamespaceScan>> musicTasks = new ArrayList<>();
+        for (String ns : namespaces) {
+            NamespaceScan scan = listAssets(ns, SOUND_PREFIX, SOUND_EXTENSIONS, false);
+            scan.merge(listAssets(ns, MUSIC_PREFIX, MUSIC_EXTENSIONS, true));
+            results.put(ns, scan);
+            for (MusicFile musicFile : scan.musicFiles) {
+                musicOwners.add(ns);
+                musicTasks.add(() -> parseMusicFile(musicFile));
+            }
+        }
+        if (musicTasks.isEmpty()) return results;
+
+        int threads = Math.max(1, Math.min(MAX_PARSE_THREADS, Math.min(Runtime.getRuntime().availableProcessors(), musicTasks.size())));
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService parseExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = Executors.defaultThreadFactory().newThread(r);
+            t.setDaemon(true);
+            t.setName("SoundController-MusicParse-" + threadIndex.incrementAndGet());
+            return t;
+        });
+
+        try {
+            mergeAll(results, musicOwners, parseExecutor.invokeAll(musicTasks));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Mod.LOGGER.warn("Sound asset scan was interrupted; results are incomplete and will not be cached.");
+            for (NamespaceScan scan : results.values()) scan.cacheable = false;
+        } finally {
+            parseExecutor.shutdownNow();
+        }
+
+        return results;
+    }
+
+    private static void mergeAll(Map<String, NamespaceScan> results, List<String> owners, List<Future<NamespaceScan>> futures) throws InterruptedException {
+        for (int i = 0; i < futures.size(); i++) {
+            NamespaceScan target = results.get(owners.get(i));
+            try {
+                target.merge(futures.get(i).get());
+            } catch (ExecutionException e) {
+                Mod.LOGGER.error("Music JSON parse for namespace '{}' failed", owners.get(i), e.getCause());
+                target.cacheable = false;
+            }
+        }
+    }
+
+    private static NamespaceScan listAssets(String ns, String prefix, String[] extensions, boolean music) {
+        NamespaceScan scan = new NamespaceScan();
+        String searchPath = ns + ":" + prefix;
+
+        for (String ext : extensions) {
+            try {
+                GameAssetLoader.forEachAsset(searchPath, ext, (assetPathStr, fileHandle) -> {
+                    if (fileHandle == null || !fileHandle.exists()) return;
+                    try {
+                        if (music) scan.musicFiles.add(new MusicFile(assetPathStr, fileHandle));
+                        else scan.ids.add(Identifier.of(assetPathStr));
+                        scan.recordSource(assetPathStr, fileHandle);
+                    } catch (Exception e) {
+                        Mod.LOGGER.error("Error processing sound asset path: {}", assetPathStr, e);
+                    }
+                });
+            } catch (Exception e) {
+                Mod.LOGGER.error("Error during forEachAsset in namespace '{}' with prefix '{}', ext '{}'", ns, prefix, ext, e);
+                scan.cacheable = false;
+            }
+        }
+        return scan;
+    }
+
+    private static NamespaceScan parseMusicFile(MusicFile musicFile) {
+        NamespaceScan scan = new NamespaceScan();
+        try {
+            // Each task parses with its own reader; libGDX JsonReader instances are not thread-safe
+            JsonValue musicJson = new JsonReader().parse(musicFile.fileHandle);
+            ObjectSet<Identifier> musicIds = new ObjectSet<>();
+            SoundHelper.parseMusicJsonForSoundFiles(musicJson, musicIds);
+            for (Identifier id : musicIds) {
+                scan.ids.add(id);
+                scan.musicIds.add(id);
+            }
+        } catch (Exception e) {
+            Mod.LOGGER.error("Failed to parse music JSON definition or add sound from {}: {}", musicFile.assetPath, e.getMessage());
+        }
+        return scan;
+    }
+
+    static final class NamespaceScan {
+        final List<Identifier> ids = new ArrayList<>();
+        final List<Identifier> musicIds = new ArrayList<>();
+        final Set<SoundIndexCache.AssetSource> sources = new HashSet<>();
+        final List<MusicFile> musicFiles = new ArrayList<>();
+        boolean cacheable = true;
+
+        private void recordSource(String assetPathStr, FileHandle fileHandle) {
+            SoundIndexCache.AssetSource source = SoundIndexCache.sourceOf(assetPathStr, fileHandle);
+            if (source != null) sources.add(source);
+            else cacheable = false;
+        }
+
+        private void merge(NamespaceScan other) {
+            ids.addAll(other.ids);
+            musicIds.addAll(other.musicIds);
+            sources.addAll(other.sources);
+            musicFiles.addAll(other.musicFiles);
+            cacheable &= other.cacheable;
+        }
+    }
+
+    private static final class MusicFile {
+        private final String assetPath;
+        private final FileHandle fileHandle;
+
+        private MusicFile(String assetPath, FileHandle fileHandle) {
+            this.assetPath = assetPath;
+            this.fileHandle = fileHandle;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dev.neuxs.sound_controller.utils;
+
+import de.pottgames.tuningfork.SoundBuffer;
+import finalforeach.cosmicreach.util.Identifier;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Buffers are keyed by identity and held weakly, so the registry never keeps a buffer alive
+public class SoundBufferRegistry {
+    private static final WeakIdentityMap<SoundBuffer, Identifier> entries = new WeakIdentityMap<>();
+    private static final LongAdder disposed = new LongAdder();
+
+    public static void register(SoundBuffer buffer, Identifier id) {
+        entries.put(buffer, id);
+    }
+
+    public static Identifier get(SoundBuffer buffer) {
+        return entries.get(buffer);
+    }
+
+    public static void onDisposed(SoundBuffer buffer) {
+        if (entries.remove(buffer) != null) disposed.increment();
+    }
+
+    public static Map<SoundBuffer, Identifier> snapshot() {
+        return Collections.unmodifiableMap(entries.snapshot());
+    }
+
+    public static int getLiveCount() {
+        return entries.size();
+    }
+
+    public static long getCollectedCount() {
+        return entries.getCollectedCount();
+    }
+
+    public static long getDisposedCount() {
+        return disposed.sum();
+    }
+}
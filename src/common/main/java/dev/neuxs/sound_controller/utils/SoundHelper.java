@@ -4,27 +4,37 @@ import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.ObjectSet;
 import de.pottgames.tuningfork.SoundBuffer;
 import dev.neuxs.sound_controller.Mod;
+import dev.neuxs.sound_controller.settings.PolicyTable;
+import dev.neuxs.sound_controller.settings.VolumeTable;
 import finalforeach.cosmicreach.GameAssetLoader;
 import finalforeach.cosmicreach.util.Identifier;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 public class SoundHelper {
-    private static final Map<SoundBuffer, Identifier> soundBufferToIdentifierMap = new ConcurrentHashMap<>();
-
     private static volatile Map<String, Identifier> soundStringToIdentifierMap = null;
+    private static volatile Set<String> musicTrackIds = Collections.emptySet();
     private static final Object stringMapLock = new Object();
 
     public static void registerSoundBuffer(Identifier id, SoundBuffer buffer) {
-        if (id != null && buffer != null) soundBufferToIdentifierMap.put(buffer, id);
-        else Mod.LOGGER.warn("Attempted to register null SoundBuffer or Identifier. ID: {}, Buffer: {}", id, buffer);
+        if (id != null && buffer != null) {
+            SoundBufferRegistry.register(buffer, id);
+            String soundId = id.toString();
+            int slot = SoundSlots.slotOf(soundId);
+            ((SoundSlotHolder) (Object) buffer).sound_controller$setSoundSlot(slot);
+            VolumeTable.onSlotAssigned(slot, soundId);
+            PolicyTable.onSlotAssigned(slot, soundId);
+        } else Mod.LOGGER.warn("Attempted to register null SoundBuffer or Identifier. ID: {}, Buffer: {}", id, buffer);
     }
 
     public static Map<SoundBuffer, Identifier> getSoundBufferMap() {
-        return Collections.unmodifiableMap(soundBufferToIdentifierMap);
+        return SoundBufferRegistry.snapshot();
     }
 
     public static void initializeStringIdentifierMap() {
@@ -45,6 +55,11 @@ public class SoundHelper {
         }
     }
 
+    // Tracks referenced by music/*.json, available once the identifier map has been built
+    public static Set<String> getMusicTrackIds() {
+        return musicTrackIds;
+    }
+
     public static Map<String, Identifier> getAllSoundIdentifiers() {
         initializeStringIdentifierMap();
         return soundStringToIdentifierMap != null ? soundStringToIdentifierMap : Collections.emptyMap();
@@ -52,63 +67,53 @@ public class SoundHelper {
 
     private static ObjectSet<Identifier> getAllIdentifiers() {
         ObjectSet<Identifier> soundIds = new ObjectSet<>();
-
-        String[] soundExtensions = {".ogg", ".wav"};
-        String[] soundPrefixes = {"sounds/"};
-
-        String[] musicExtensions = {".json"};
-        String[] musicPrefixes = {"music/"};
-
         ObjectSet<String> namespaces = GameAssetLoader.getAllNamespaces();
+        SoundIndexCache indexCache = SoundIndexCache.load();
+        Set<String> liveNamespaces = new HashSet<>();
+        List<String> staleNamespaces = new ArrayList<>();
+        Set<String> musicIds = new HashSet<>();
 
         for (String ns : namespaces) {
-            String namespacePrefix = ns + ":";
+            liveNamespaces.add(ns);
 
-            for (String prefix : soundPrefixes) {
-                for (String ext : soundExtensions) {
-                    String searchPath = namespacePrefix + prefix;
-                    try {
-                        GameAssetLoader.forEachAsset(searchPath, ext, (assetPathStr, fileHandle) -> {
-                            if (fileHandle != null && fileHandle.exists()) {
-                                try {
-                                    Identifier id = Identifier.of(assetPathStr);
-                                    soundIds.add(id);
-                                } catch (Exception e) {
-                                    Mod.LOGGER.error("Error processing sound asset path: {}", assetPathStr, e);
-                                }
-                            }
-                        });
-                    } catch (Exception e) {
-                        Mod.LOGGER.error("Error during forEachAsset for sounds in namespace '{}' with prefix '{}', ext '{}'", ns, prefix, ext, e);
-                    }
-                }
+            List<String> cachedIds = indexCache.getValidIds(ns);
+            if (cachedIds == null) {
+                staleNamespaces.add(ns);
+                continue;
             }
 
-            for (String prefix : musicPrefixes) {
-                for (String ext : musicExtensions) {
-                    String searchPath = namespacePrefix + prefix;
-                    try {
-                        GameAssetLoader.forEachAsset(searchPath, ext, (assetPathStr, fileHandle) -> {
-                            if (fileHandle != null && fileHandle.exists()) {
-                                try {
-                                    JsonValue musicJson = GameAssetLoader.loadJson(fileHandle);
-                                    parseMusicJsonForSoundFiles(musicJson, soundIds);
-                                } catch (Exception e) {
-                                    Mod.LOGGER.error("Failed to parse music JSON definition or add sound from {}: {}", assetPathStr, e.getMessage());
-                                }
-                            }
-                        });
-                    } catch (Exception e) {
-                        Mod.LOGGER.error("Error during forEachAsset for music in namespace '{}' with prefix '{}', ext '{}'", ns, prefix, ext, e);
-                    }
-                }
+            for (String cachedId : cachedIds) {
+                try { soundIds.add(Identifier.of(cachedId)); }
+                catch (Exception e) { Mod.LOGGER.error("Error restoring cached sound identifier: {}", cachedId, e); }
             }
+            musicIds.addAll(indexCache.getMusicIds(ns));
         }
 
+        Map<String, SoundAssetScanner.NamespaceScan> scans = SoundAssetScanner.scan(staleNamespaces);
+        for (Map.Entry<String, SoundAssetScanner.NamespaceScan> entry : scans.entrySet()) {
+            SoundAssetScanner.NamespaceScan scan = entry.getValue();
+            List<String> idStrings = new ArrayList<>(scan.ids.size());
+            for (Identifier id : scan.ids) {
+                soundIds.add(id);
+                idStrings.add(id.toString());
+            }
+            List<String> musicIdStrings = new ArrayList<>(scan.musicIds.size());
+            for (Identifier id : scan.musicIds) musicIdStrings.add(id.toString());
+            musicIds.addAll(musicIdStrings);
+
+            if (scan.cacheable) indexCache.put(entry.getKey(), idStrings, musicIdStrings, scan.sources);
+            else indexCache.remove(entry.getKey());
+        }
+
+        musicTrackIds = Collections.unmodifiableSet(musicIds);
+        indexCache.retainNamespaces(liveNamespaces);
+        indexCache.saveIfChanged();
+        Mod.LOGGER.info("Sound index: {} namespace(s) loaded from cache, {} rescanned.", liveNamespaces.size() - staleNamespaces.size(), staleNamespaces.size());
+
         return soundIds;
     }
 
-    private static void parseMusicJsonForSoundFiles(JsonValue musicJson, ObjectSet<Identifier> soundIds) {
+    static void parseMusicJsonForSoundFiles(JsonValue musicJson, ObjectSet<Identifier> soundIds) {
         if (musicJson == null) return;
 
         if (musicJson.isObject() && musicJson.has("fileName")) {
@@ -0,0 +1,289 @@
+package dev.neuxs.sound_controller.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import dev.neuxs.sound_controller.Mod;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+public class SoundIndexCache {
+    private static final Path INDEX_FILE_PATH = Paths.get("config", "sound_controller.index.json");
+    private static final int FORMAT_VERSION = 3;
+    private static final String[] INDEXED_FOLDERS = {"sounds", "music"};
+    private static final String[] MOD_FOLDERS = {"mods"};
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final Map<String, NamespaceEntry> namespaces;
+    private final Map<String, SourceStamp> stampCache = new TreeMap<>();
+    private List<String> jarRoots = null;
+    private List<String> classpathFolders = null;
+    private boolean dirty = false;
+
+    private SoundIndexCache(Map<String, NamespaceEntry> namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    public static SoundIndexCache load() {
+        try {
+            String json = Files.readString(INDEX_FILE_PATH, StandardCharsets.UTF_8);
+            IndexFile file = GSON.fromJson(json, IndexFile.class);
+            if (file != null && file.version == FORMAT_VERSION && file.namespaces != null) {
+                return new SoundIndexCache(new TreeMap<>(file.namespaces));
+            }
+            Mod.LOGGER.info("Sound index {} has an outdated format, rebuilding.", INDEX_FILE_PATH);
+        } catch (NoSuchFileException e) {
+            Mod.LOGGER.info("No sound index found at {}, building one.", INDEX_FILE_PATH);
+        } catch (IOException | JsonParseException e) {
+            Mod.LOGGER.warn("Could not read sound index {}: {}. Rebuilding.", INDEX_FILE_PATH, e.getMessage());
+        }
+
+        SoundIndexCache cache = new SoundIndexCache(new TreeMap<>());
+        cache.dirty = true;
+        return cache;
+    }
+
+    public List<String> getValidIds(String namespace) {
+        NamespaceEntry entry = namespaces.get(namespace);
+        if (entry == null || entry.ids == null || entry.sources == null || entry.candidates == null) return null;
+
+        for (SourceStamp stored : entry.sources) {
+            if (!stored.equals(stampOf(stored.path, stored.directory))) return null;
+        }
+        // A jar or folder that didn't contribute at the last scan may have started to
+        if (!entry.candidates.equals(candidatesOf(namespace))) return null;
+        return entry.ids;
+    }
+
+    // Only meaningful once getValidIds has accepted the namespace
+    public List<String> getMusicIds(String namespace) {
+        NamespaceEntry entry = namespaces.get(namespace);
+        return entry != null && entry.musicIds != null ? entry.musicIds : List.of();
+    }
+
+    public void put(String namespace, Collection<String> ids, Collection<String> musicIds, Collection<AssetSource> sources) {
+        NamespaceEntry entry = new NamespaceEntry();
+        entry.ids = new ArrayList<>(new TreeSet<>(ids));
+        entry.musicIds = new ArrayList<>(new TreeSet<>(musicIds));
+        entry.sources = new ArrayList<>();
+        for (AssetSource source : new TreeSet<>(sources)) entry.sources.add(stampOf(source.path, source.directory));
+        entry.candidates = candidatesOf(namespace);
+        namespaces.put(namespace, entry);
+        dirty = true;
+    }
+
+    public void remove(String namespace) {
+        if (namespaces.remove(namespace) != null) dirty = true;
+    }
+
+    public void retainNamespaces(Set<String> liveNamespaces) {
+        if (namespaces.keySet().retainAll(liveNamespaces)) dirty = true;
+    }
+
+    public void saveIfChanged() {
+        if (!dirty) return;
+
+        IndexFile file = new IndexFile();
+        file.version = FORMAT_VERSION;
+        file.namespaces = namespaces;
+
+        try {
+            Files.createDirectories(INDEX_FILE_PATH.getParent());
+            Path tempPath = INDEX_FILE_PATH.resolveSibling(INDEX_FILE_PATH.getFileName().toString() + ".tmp");
+            Files.writeString(tempPath, GSON.toJson(file), StandardCharsets.UTF_8);
+            Files.move(tempPath, INDEX_FILE_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            Mod.LOGGER.error("Failed to save sound index to {}: {}", INDEX_FILE_PATH, e.getMessage(), e);
+        }
+    }
+
+    public static AssetSource sourceOf(String assetPathStr, FileHandle fileHandle) {
+        String name = assetPathStr.substring(assetPathStr.indexOf(':') + 1);
+
+        if (fileHandle.type() != com.badlogic.gdx.Files.FileType.Classpath) {
+            File file = fileHandle.file();
+            if (file != null && file.exists()) {
+                String absolute = file.getAbsolutePath().replace('\\', '/');
+                if (absolute.endsWith(name)) return new AssetSource(absolute.substring(0, absolute.length() - name.length()), true);
+                File parent = file.getParentFile();
+                return parent != null ? new AssetSource(parent.getAbsolutePath(), true) : null;
+            }
+        }
+
+        try {
+            URL url = SoundIndexCache.class.getClassLoader().getResource(fileHandle.path());
+            if (url == null) return null;
+            if ("jar".equals(url.getProtocol())) {
+                String spec = url.getPath();
+                int separator = spec.indexOf("!/");
+                if (separator == -1) return null;
+                return new AssetSource(Paths.get(new URI(spec.substring(0, separator))).toString(), false);
+            }
+            if ("file".equals(url.getProtocol())) {
+                String absolute = Paths.get(url.toURI()).toString().replace('\\', '/');
+                String relative = fileHandle.path().replace('\\', '/');
+                if (absolute.endsWith(relative)) return new AssetSource(absolute.substring(0, absolute.length() - relative.length()), true);
+            }
+        } catch (Exception e) {
+            Mod.LOGGER.debug("Could not resolve asset source for {}: {}", assetPathStr, e.getMessage());
+        }
+        return null;
+    }
+
+    // Everything that could add sounds to a namespace: every jar the game or a mod loader can load assets from, and the loose
+    // folders a namespace may live in. Jars are stamped whole, so adding, replacing or removing any of them invalidates the cache
+    private List<SourceStamp> candidatesOf(String namespace) {
+        listRoots();
+        List<SourceStamp> candidates = new ArrayList<>();
+        for (String jar : jarRoots) candidates.add(stampOf(jar, false));
+        for (String folder : MOD_FOLDERS) addLooseRoots(candidates, Paths.get(folder).toAbsolutePath(), namespace);
+        for (String folder : classpathFolders) addLooseRoots(candidates, Paths.get(folder), namespace);
+        return candidates;
+    }
+
+    private void addLooseRoots(List<SourceStamp> candidates, Path base, String namespace) {
+        candidates.add(stampOf(base.resolve(namespace).toString(), true));
+        candidates.add(stampOf(base.resolve("assets").resolve(namespace).toString(), true));
+    }
+
+    // Listed once per load, like the stamps
+    private void listRoots() {
+        if (jarRoots != null) return;
+
+        Set<String> jars = new TreeSet<>();
+        Set<String> folders = new TreeSet<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (entry.isEmpty()) continue;
+            Path path = Paths.get(entry).toAbsolutePath();
+            if (Files.isDirectory(path)) folders.add(path.toString());
+            else if (Files.isRegularFile(path)) jars.add(path.toString());
+        }
+        for (String folder : MOD_FOLDERS) {
+            Path mods = Paths.get(folder).toAbsolutePath();
+            if (!Files.isDirectory(mods)) continue;
+            try (Stream<Path> listing = Files.list(mods)) {
+                listing.filter(path -> path.getFileName().toString().endsWith(".jar") && Files.isRegularFile(path))
+                        .forEach(path -> jars.add(path.toString()));
+            } catch (IOException e) {
+                Mod.LOGGER.debug("Could not list {}: {}", mods, e.getMessage());
+            }
+        }
+
+        jarRoots = new ArrayList<>(jars);
+        classpathFolders = new ArrayList<>(folders);
+    }
+
+    private SourceStamp stampOf(String path, boolean directory) {
+        return stampCache.computeIfAbsent((directory ? "d:" : "f:") + path, key -> computeStamp(path, directory));
+    }
+
+    private static SourceStamp computeStamp(String path, boolean directory) {
+        SourceStamp stamp = new SourceStamp();
+        stamp.path = path;
+        stamp.directory = directory;
+
+        Path root = Paths.get(path);
+        try {
+            if (!directory) {
+                BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+                stamp.size = attributes.size();
+                stamp.modified = attributes.lastModifiedTime().toMillis();
+                return stamp;
+            }
+
+            // Only the folders we index are walked, and only their attributes are read
+            for (String folder : INDEXED_FOLDERS) {
+                Path indexed = root.resolve(folder);
+                if (!Files.isDirectory(indexed)) continue;
+                try (Stream<Path> walk = Files.walk(indexed)) {
+                    for (Path child : (Iterable<Path>) walk::iterator) {
+                        BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                        stamp.size++;
+                        stamp.modified = Math.max(stamp.modified, attributes.lastModifiedTime().toMillis());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            stamp.size = -1;
+            stamp.modified = -1;
+        }
+        return stamp;
+    }
+
+    public static final class AssetSource implements Comparable<AssetSource> {
+        private final String path;
+        private final boolean directory;
+
+        public AssetSource(String path, boolean directory) {
+            this.path = Objects.requireNonNull(path, "path cannot be null");
+            this.directory = directory;
+        }
+
+        @Override
+        public int compareTo(AssetSource other) {
+            int byPath = path.compareTo(other.path);
+            return byPath != 0 ? byPath : Boolean.compare(directory, other.directory);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AssetSource other && path.equals(other.path) && directory == other.directory;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + (directory ? 1 : 0);
+        }
+    }
+
+    private static final class IndexFile {
+        int version;
+        Map<String, NamespaceEntry> namespaces;
+    }
+
+    private static final class NamespaceEntry {
+        List<String> ids;
+        List<String> musicIds;
+        List<SourceStamp> sources;
+        List<SourceStamp> candidates;
+    }
+
+    private static final class SourceStamp {
+        String path;
+        boolean directory;
+        long size;
+        long modified;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SourceStamp other && directory == other.directory && size == other.size
+                    && modified == other.modified && Objects.equals(path, other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, directory, size, modified);
+        }
+    }
+}
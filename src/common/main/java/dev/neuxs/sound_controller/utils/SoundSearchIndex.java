@@ -0,0 +1,299 @@
+package dev.neuxs.sound_controller.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// "ns:" limits a query to one namespace and "ns:some/folder/" to a folder prefix; whatever follows the last '/' is
+// searched as a substring, then as a typo-tolerant trigram match when there are few substring hits
+public class SoundSearchIndex {
+    private static final int FUZZY_FALLBACK_THRESHOLD = 50;
+    private static final int MAX_FUZZY_RESULTS = 200;
+    // A fuzzy match may miss this many of the term's trigrams, which is what one mistyped character costs
+    private static final int FUZZY_MISSING_TRIGRAMS = 3;
+
+    private final String[] soundIds;
+    private final String[] lowerIds;
+    private final int[] pathStarts;
+    private final Map<Long, int[]> trigramPostings;
+    private final Map<String, int[]> namespaceRanges = new HashMap<>();
+    private final int[] allIndices;
+
+    private String lastNamespace = null;
+    private String lastFolder = null;
+    private String lastTerm = null;
+    private int[] lastMatches = null;
+    private int lastMatchCount = 0;
+
+    private String lastFuzzyScope = null;
+    private String lastFuzzyTerm = null;
+    private int lastFuzzyTrigrams = 0;
+    private int[] lastFuzzyCandidates = null;
+    private int lastFuzzyCandidateCount = 0;
+
+    public SoundSearchIndex(List<String> sortedSoundIds) {
+        int count = sortedSoundIds.size();
+        soundIds = sortedSoundIds.toArray(new String[0]);
+        lowerIds = new String[count];
+        pathStarts = new int[count];
+        allIndices = new int[count];
+
+        Map<Long, IntList> postings = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String lower = soundIds[i].toLowerCase(Locale.ROOT);
+            lowerIds[i] = lower;
+            allIndices[i] = i;
+
+            int colon = lower.indexOf(':');
+            pathStarts[i] = colon + 1;
+            String namespace = colon >= 0 ? lower.substring(0, colon) : "";
+            int[] range = namespaceRanges.computeIfAbsent(namespace, ns -> new int[]{Integer.MAX_VALUE, -1});
+            range[0] = Math.min(range[0], i);
+            range[1] = Math.max(range[1], i);
+
+            for (int p = 0; p + 3 <= lower.length(); p++) {
+                postings.computeIfAbsent(trigram(lower, p), key -> new IntList()).addDistinct(i);
+            }
+        }
+
+        trigramPostings = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<Long, IntList> entry : postings.entrySet()) trigramPostings.put(entry.getKey(), entry.getValue().toArray());
+    }
+
+    public int size() {
+        return soundIds.length;
+    }
+
+    public List<String> search(String query) {
+        String lowerQuery = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (lowerQuery.isEmpty()) return view(allIndices, allIndices.length);
+
+        String namespace = null;
+        String folder = "";
+        String term = lowerQuery;
+        int colon = lowerQuery.indexOf(':');
+        if (colon >= 0) {
+            namespace = lowerQuery.substring(0, colon);
+            String path = lowerQuery.substring(colon + 1);
+            int slash = path.lastIndexOf('/');
+            folder = path.substring(0, slash + 1);
+            term = path.substring(slash + 1);
+        }
+
+        findSubstringMatches(namespace, folder, term);
+        int[] matches = lastMatches;
+        int matchCount = lastMatchCount;
+
+        if (matchCount >= FUZZY_FALLBACK_THRESHOLD || term.length() < 3) return view(matches, matchCount);
+        return appendFuzzyMatches(namespace, folder, term, matches, matchCount);
+    }
+
+    private void findSubstringMatches(String namespace, String folder, String term) {
+        int[] candidates;
+        int candidateCount;
+        boolean incremental = lastTerm != null && !lastTerm.isEmpty() && term.startsWith(lastTerm)
+                && Objects.equals(namespace, lastNamespace) && folder.equals(lastFolder);
+
+        if (incremental) {
+            // The query was extended, so every new match must already be in the previous result
+            candidates = lastMatches;
+            candidateCount = lastMatchCount;
+        } else if (term.length() >= 3 || folder.length() >= 3) {
+            candidates = rarestPostings(term.length() >= 3 ? term : folder);
+            candidateCount = candidates.length;
+        } else {
+            candidates = allIndices;
+            candidateCount = allIndices.length;
+        }
+
+        int[] range = namespace != null && !namespace.isEmpty() ? namespaceRanges.get(namespace) : null;
+        if (namespace != null && !namespace.isEmpty() && range == null) candidateCount = 0;
+
+        int[] matches = new int[candidateCount];
+        int matchCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            int index = candidates[c];
+            if (!inScope(index, namespace, range, folder)) continue;
+            int from = namespace != null ? pathStarts[index] + folder.length() : 0;
+            if (term.isEmpty() || lowerIds[index].indexOf(term, from) >= 0) matches[matchCount++] = index;
+        }
+
+        lastNamespace = namespace;
+        lastFolder = folder;
+        lastTerm = term;
+        lastMatches = matches;
+        lastMatchCount = matchCount;
+    }
+
+    // The folder is a prefix of the path, never a substring somewhere inside it
+    private boolean inScope(int index, String namespace, int[] range, String folder) {
+        if (range != null && (index < range[0] || index > range[1])) return false;
+        return namespace == null || lowerIds[index].startsWith(folder, pathStarts[index]);
+    }
+
+    private int[] rarestPostings(String term) {
+        int[] rarest = null;
+        for (int p = 0; p + 3 <= term.length(); p++) {
+            int[] postings = trigramPostings.get(trigram(term, p));
+            if (postings == null) return new int[0];
+            if (rarest == null || postings.length < rarest.length) rarest = postings;
+        }
+        return rarest;
+    }
+
+    private List<String> appendFuzzyMatches(String namespace, String folder, String term, int[] exactMatches, int exactCount) {
+        int[] range = namespace != null && !namespace.isEmpty() ? namespaceRanges.get(namespace) : null;
+        if (namespace != null && !namespace.isEmpty() && range == null) return view(exactMatches, exactCount);
+
+        // Trigrams the catalog has never seen can't be shared, but they still count against the match
+        List<int[]> postings = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int p = 0; p + 3 <= term.length(); p++) {
+            long key = trigram(term, p);
+            if (!seen.add(key)) continue;
+            int[] list = trigramPostings.get(key);
+            if (list != null) postings.add(list);
+        }
+        int trigramCount = seen.size();
+        int required = Math.max(1, trigramCount - FUZZY_MISSING_TRIGRAMS);
+        if (postings.size() < required) return view(exactMatches, exactCount);
+        postings.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] candidates;
+        int candidateCount;
+        String scope = namespace + ":" + folder;
+        // Once at least one trigram is required, anything the extended term matches shares enough with the shorter one,
+        // so the previous candidates can only narrow
+        if (lastFuzzyTerm != null && scope.equals(lastFuzzyScope) && term.startsWith(lastFuzzyTerm)
+                && lastFuzzyTrigrams - FUZZY_MISSING_TRIGRAMS >= 1) {
+            candidates = lastFuzzyCandidates;
+            candidateCount = lastFuzzyCandidateCount;
+        } else {
+            // A candidate missing from all of the rarest (trigramCount - required + 1) lists can't reach the threshold
+            candidates = union(postings, Math.min(postings.size(), trigramCount - required + 1));
+            candidateCount = candidates.length;
+        }
+
+        int[] kept = new int[candidateCount];
+        int keptCount = 0;
+        int[] fuzzy = new int[Math.min(candidateCount, MAX_FUZZY_RESULTS)];
+        int[] scores = new int[fuzzy.length];
+        int fuzzyCount = 0;
+
+        for (int c = 0; c < candidateCount; c++) {
+            int index = candidates[c];
+            if (!inScope(index, namespace, range, folder)) continue;
+            int shared = 0;
+            for (int[] list : postings) if (Arrays.binarySearch(list, index) >= 0) shared++;
+            if (shared < required) continue;
+            kept[keptCount++] = index;
+            if (Arrays.binarySearch(exactMatches, 0, exactCount, index) >= 0) continue;
+
+            // Shared trigrams decide the rank; the subsequence score breaks ties between equally close names
+            int score = shared * 1000 + fuzzyScore(lowerIds[index], namespace != null ? pathStarts[index] + folder.length() : 0, term);
+            if (fuzzyCount < fuzzy.length) {
+                fuzzy[fuzzyCount] = index;
+                scores[fuzzyCount++] = score;
+            } else {
+                int weakest = 0;
+                for (int i = 1; i < fuzzyCount; i++) if (scores[i] < scores[weakest]) weakest = i;
+                if (score > scores[weakest]) {
+                    fuzzy[weakest] = index;
+                    scores[weakest] = score;
+                }
+            }
+        }
+
+        lastFuzzyScope = scope;
+        lastFuzzyTerm = term;
+        lastFuzzyTrigrams = trigramCount;
+        lastFuzzyCandidates = kept;
+        lastFuzzyCandidateCount = keptCount;
+
+        Integer[] order = new Integer[fuzzyCount];
+        for (int i = 0; i < fuzzyCount; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Integer.compare(scores[b], scores[a]) : Integer.compare(fuzzy[a], fuzzy[b]));
+
+        int[] combined = Arrays.copyOf(exactMatches, exactCount + fuzzyCount);
+        for (int i = 0; i < fuzzyCount; i++) combined[exactCount + i] = fuzzy[order[i]];
+        return view(combined, combined.length);
+    }
+
+    // Sorted, distinct indices found in any of the first count lists
+    private static int[] union(List<int[]> lists, int count) {
+        int total = 0;
+        for (int i = 0; i < count; i++) total += lists.get(i).length;
+        int[] merged = new int[total];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int[] list = lists.get(i);
+            System.arraycopy(list, 0, merged, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(merged, 0, size);
+
+        int distinct = 0;
+        for (int i = 0; i < size; i++) if (distinct == 0 || merged[distinct - 1] != merged[i]) merged[distinct++] = merged[i];
+        return Arrays.copyOf(merged, distinct);
+    }
+
+    private static int fuzzyScore(String candidate, int from, String term) {
+        int score = 0;
+        int streak = 0;
+        int position = from;
+
+        for (int t = 0; t < term.length(); t++) {
+            char wanted = term.charAt(t);
+            int found = candidate.indexOf(wanted, position);
+            if (found < 0) return 0;
+
+            boolean segmentStart = found == from || "/:_-.".indexOf(candidate.charAt(found - 1)) >= 0;
+            streak = found == position ? streak + 1 : 0;
+            score += 1 + streak * 2 + (segmentStart ? 3 : 0);
+            position = found + 1;
+        }
+        return score;
+    }
+
+    private List<String> view(int[] indices, int count) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int i) {
+                if (i < 0 || i >= count) throw new IndexOutOfBoundsException(i);
+                return soundIds[indices[i]];
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private static long trigram(String s, int p) {
+        return ((long) s.charAt(p) << 32) | ((long) s.charAt(p + 1) << 16) | s.charAt(p + 2);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        private void addDistinct(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package dev.neuxs.sound_controller.utils;
+
+public interface SoundSlotHolder {
+    int sound_controller$getSoundSlot();
+
+    void sound_controller$setSoundSlot(int slot);
+}
@@ -0,0 +1,48 @@
+package dev.neuxs.sound_controller.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SoundSlots {
+    public static final int UNASSIGNED = 0;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final Map<String, Integer> slotsById = new ConcurrentHashMap<>();
+    private static volatile String[] idsBySlot = new String[INITIAL_CAPACITY];
+    private static volatile int slotCount = 1;
+    private static final Object slotLock = new Object();
+
+    public static int slotOf(String soundId) {
+        Integer existing = slotsById.get(soundId);
+        if (existing != null) return existing;
+
+        synchronized (slotLock) {
+            existing = slotsById.get(soundId);
+            if (existing != null) return existing;
+
+            int slot = slotCount;
+            String[] ids = idsBySlot;
+            if (slot >= ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+            ids[slot] = soundId;
+            idsBySlot = ids;
+            slotsById.put(soundId, slot);
+            slotCount = slot + 1;
+            return slot;
+        }
+    }
+
+    public static int findSlot(String soundId) {
+        Integer slot = slotsById.get(soundId);
+        return slot != null ? slot : UNASSIGNED;
+    }
+
+    public static String idOf(int slot) {
+        String[] ids = idsBySlot;
+        return (slot > UNASSIGNED && slot < ids.length) ? ids[slot] : null;
+    }
+
+    public static int getSlotCount() {
+        return slotCount;
+    }
+}
@@ -0,0 +1,31 @@
+package dev.neuxs.sound_controller.utils;
+
+import dev.neuxs.sound_controller.Mod;
+
+public class StageTimer {
+    private final String name;
+    private final long startNanos;
+    private final StringBuilder stages = new StringBuilder();
+    private long lastMarkNanos;
+
+    public StageTimer(String name) {
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        this.lastMarkNanos = startNanos;
+    }
+
+    public void mark(String stage) {
+        long now = System.nanoTime();
+        if (!stages.isEmpty()) stages.append(", ");
+        stages.append(stage).append(' ').append(formatMillis(now - lastMarkNanos)).append(" ms");
+        lastMarkNanos = now;
+    }
+
+    public void log() {
+        Mod.LOGGER.info("{} finished in {} ms ({})", name, formatMillis(System.nanoTime() - startNanos), stages);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.neuxs.sound_controller.utils;
+
+public interface StreamedBufferHolder {
+    Object sound_controller$getStreamSource();
+
+    void sound_controller$setStreamSource(Object source);
+}
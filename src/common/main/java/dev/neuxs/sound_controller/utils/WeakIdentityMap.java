@@ -0,0 +1,81 @@
+package dev.neuxs.sound_controller.utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keys compare by identity and are held weakly, so the map never keeps a key alive; entries whose key was collected
+// are dropped on the next write or count
+final class WeakIdentityMap<K, V> {
+    private final Map<Key<K>, V> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> collectedKeys = new ReferenceQueue<>();
+    private final LongAdder collected = new LongAdder();
+
+    void put(K key, V value) {
+        expungeCollected();
+        entries.put(new Key<>(key, collectedKeys), value);
+    }
+
+    V get(K key) {
+        return key != null ? entries.get(new Key<>(key, null)) : null;
+    }
+
+    V remove(K key) {
+        expungeCollected();
+        return key != null ? entries.remove(new Key<>(key, null)) : null;
+    }
+
+    Map<K, V> snapshot() {
+        expungeCollected();
+        Map<K, V> snapshot = new IdentityHashMap<>(entries.size());
+        for (Map.Entry<Key<K>, V> entry : entries.entrySet()) {
+            K key = entry.getKey().get();
+            if (key != null) snapshot.put(key, entry.getValue());
+        }
+        return snapshot;
+    }
+
+    int size() {
+        expungeCollected();
+        return entries.size();
+    }
+
+    long getCollectedCount() {
+        expungeCollected();
+        return collected.sum();
+    }
+
+    private void expungeCollected() {
+        Reference<? extends K> reference;
+        while ((reference = collectedKeys.poll()) != null) {
+            if (entries.remove(reference) != null) collected.increment();
+        }
+    }
+
+    private static final class Key<K> extends WeakReference<K> {
+        private final int hash;
+
+        private Key(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key<?> other) || hash != other.hash) return false;
+            // A cleared key only ever equals itself, which is how the expunge pass finds it
+            Object key = get();
+            return key != null && key == other.get();
+        }
+    }
+}
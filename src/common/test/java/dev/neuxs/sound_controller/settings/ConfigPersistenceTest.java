@@ -0,0 +1,85 @@
+package dev.neuxs.sound_controller.settings;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A menu edit queues a write-behind save; an external edit landing inside its quiet period must not be written over
+class ConfigPersistenceTest {
+    private static final String SOUND_ID = "base:sounds/a.ogg";
+
+    @Test
+    void externalEditWithinTheQuietPeriodDropsTheQueuedSave() throws InterruptedException {
+        List<SoundConfig> written = new ArrayList<>();
+        ConfigPersistence persistence = new ConfigPersistence(written::add);
+        SoundConfig loaded = new SoundConfig(new HashMap<>());
+
+        SoundConfig menuEdit = loaded.withVolume(SOUND_ID, 0.2f);
+        persistence.requestSave(menuEdit);
+
+        long writtenBeforeRead = persistence.getLastWrittenVersion();
+        SoundConfig reloaded = SettingsManager.reconcile(menuEdit, sparseFile(Map.of(SOUND_ID, 0.9f)), new HashMap<>());
+        persistence.supersede(reloaded, writtenBeforeRead);
+
+        awaitQuietPeriod(persistence);
+        assertTrue(written.isEmpty(), "the pre-reload snapshot was written over the external edit");
+        assertEquals(0.9f, reloaded.getVolume(SOUND_ID), 0.0001f);
+    }
+
+    @Test
+    void aWriteThatLandedAfterTheReadIsReplacedWithTheReloadedConfig() throws InterruptedException {
+        List<SoundConfig> written = new ArrayList<>();
+        ConfigPersistence persistence = new ConfigPersistence(written::add);
+        SoundConfig menuEdit = new SoundConfig(new HashMap<>()).withVolume(SOUND_ID, 0.2f);
+        persistence.requestSave(menuEdit);
+
+        long writtenBeforeRead = persistence.getLastWrittenVersion();
+        SoundConfig reloaded = SettingsManager.reconcile(menuEdit, sparseFile(Map.of(SOUND_ID, 0.9f)), new HashMap<>());
+        // The queued save flushes between the watcher reading the file and the reload being published
+        persistence.flush();
+        persistence.supersede(reloaded, writtenBeforeRead);
+
+        awaitQuietPeriod(persistence);
+        assertEquals(2, written.size());
+        assertEquals(0.9f, written.get(written.size() - 1).getVolume(SOUND_ID), 0.0001f);
+    }
+
+    @Test
+    void editsMadeAfterTheReloadAreStillSaved() throws InterruptedException {
+        List<SoundConfig> written = new ArrayList<>();
+        ConfigPersistence persistence = new ConfigPersistence(written::add);
+        SoundConfig menuEdit = new SoundConfig(new HashMap<>()).withVolume(SOUND_ID, 0.2f);
+        persistence.requestSave(menuEdit);
+
+        SoundConfig reloaded = SettingsManager.reconcile(menuEdit, sparseFile(Map.of(SOUND_ID, 0.9f)), new HashMap<>());
+        persistence.supersede(reloaded, persistence.getLastWrittenVersion());
+        SoundConfig laterEdit = reloaded.withVolume(SOUND_ID, 0.4f);
+        persistence.requestSave(laterEdit);
+
+        awaitQuietPeriod(persistence);
+        assertEquals(List.of(laterEdit), written);
+    }
+
+    private static ConfigFile sparseFile(Map<String, Float> volumes) {
+        StringBuilder json = new StringBuilder("{\"format\": 2, \"volumes\": {");
+        String separator = "";
+        for (Map.Entry<String, Float> entry : volumes.entrySet()) {
+            json.append(separator).append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+            separator = ", ";
+        }
+        return ConfigFile.parse(json.append("}}").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void awaitQuietPeriod(ConfigPersistence persistence) throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && persistence.hasPendingWrites(); attempt++) Thread.sleep(20);
+        assertFalse(persistence.hasPendingWrites());
+    }
+}
@@ -0,0 +1,84 @@
+package dev.neuxs.sound_controller.settings;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A hot reload has to leave exactly the explicit entries a fresh load of the same file would
+class ConfigReloadTest {
+    private static final List<String> SOUND_IDS = List.of("base:sounds/a.ogg", "base:sounds/b.ogg", "base:sounds/c.ogg", "base:music/d.ogg");
+
+    @Test
+    void editingTheRuleKeepsAnEntryEqualToTheOldRuleValue() {
+        SoundConfig loaded = load(file(0.5f, Map.of("base:sounds/a.ogg", 0.8f)));
+
+        // The user raises the rule and pins b at the old rule value in the same save
+        ConfigFile edited = file(0.3f, Map.of("base:sounds/a.ogg", 0.8f, "base:sounds/b.ogg", 0.5f));
+        SoundConfig reloaded = reload(loaded, edited);
+
+        assertMatchesFreshLoad(edited, reloaded);
+        assertEquals(0.5f, reloaded.getVolume("base:sounds/b.ogg"), 0.0001f);
+        assertEquals(0.3f, reloaded.getVolume("base:sounds/c.ogg"), 0.0001f);
+    }
+
+    @Test
+    void entriesTheNewRuleCoversAreDroppedAndMissingOnesFallBack() {
+        SoundConfig loaded = load(file(0.5f, Map.of("base:sounds/a.ogg", 0.8f, "base:sounds/b.ogg", 0.2f)));
+
+        ConfigFile edited = file(0.8f, Map.of("base:sounds/a.ogg", 0.8f));
+        SoundConfig reloaded = reload(loaded, edited);
+
+        assertMatchesFreshLoad(edited, reloaded);
+        assertEquals(0, reloaded.size(), "a.ogg now equals the rule and b.ogg left the file");
+        assertEquals(0.8f, reloaded.getVolume("base:sounds/b.ogg"), 0.0001f);
+    }
+
+    @Test
+    void roundTripThroughTheSavedFile() {
+        SoundConfig loaded = load(file(0.5f, Map.of("base:sounds/a.ogg", 0.8f, "base:music/d.ogg", 0.1f)));
+
+        // Save, edit only the rule in the written JSON, then reload it
+        String saved = new String(ConfigFile.serialize(loaded, Map.of(SoundConfig.DEFAULT_PROFILE, loaded)), StandardCharsets.UTF_8);
+        assertTrue(saved.contains("\"volume\": 0.5"), saved);
+        ConfigFile edited = ConfigFile.parse(saved.replace("\"volume\": 0.5", "\"volume\": 0.8").getBytes(StandardCharsets.UTF_8));
+        SoundConfig reloaded = reload(loaded, edited);
+
+        assertMatchesFreshLoad(edited, reloaded);
+        // Reloading the same file again changes nothing
+        assertEquals(reloaded.toMap(), reload(reloaded, edited).toMap());
+    }
+
+    private static ConfigFile file(float ruleVolume, Map<String, Float> volumes) {
+        StringBuilder json = new StringBuilder("{\"format\": 2, \"volumes\": {");
+        String separator = "";
+        for (Map.Entry<String, Float> entry : volumes.entrySet()) {
+            json.append(separator).append('"').append(entry.getKey()).append("\": ").append(entry.getValue());
+            separator = ", ";
+        }
+        json.append("}, \"rules\": [{\"match\": \"base:sounds/*\", \"volume\": ").append(ruleVolume).append("}]}");
+        return ConfigFile.parse(json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SoundConfig load(ConfigFile file) {
+        return new SoundConfig(file.volumes, file.playback, file.policies, file.groups, file.rules, 0L);
+    }
+
+    private static SoundConfig reload(SoundConfig current, ConfigFile file) {
+        return SettingsManager.reconcile(current, file, new HashMap<>());
+    }
+
+    private static void assertMatchesFreshLoad(ConfigFile file, SoundConfig reloaded) {
+        SoundConfig fresh = load(file);
+        assertEquals(fresh.toMap(), reloaded.toMap());
+        assertEquals(fresh.getRules(), reloaded.getRules());
+        for (String soundId : SOUND_IDS) {
+            assertEquals(fresh.getVolume(soundId), reloaded.getVolume(soundId), 0.0001f, soundId);
+        }
+    }
+}
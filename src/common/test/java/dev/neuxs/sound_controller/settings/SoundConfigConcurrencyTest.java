@@ -0,0 +1,129 @@
+package dev.neuxs.sound_controller.settings;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Hammers a published config the way SettingsManager does: edits CAS in a derived snapshot, reloads swap in a rebuilt one.
+// Every write sets all sounds to one value, so a reader that ever sees two different values has seen a torn config.
+class SoundConfigConcurrencyTest {
+    private static final int SOUND_COUNT = 512;
+    private static final int READERS = 4;
+    private static final int EDITS_PER_WRITER = 2_000;
+    private static final int RELOADS = 500;
+
+    @Test
+    @Timeout(60)
+    void readersNeverSeeATornConfig() throws Exception {
+        List<String> soundIds = new ArrayList<>(SOUND_COUNT);
+        for (int i = 0; i < SOUND_COUNT; i++) soundIds.add("stress:sounds/sound_" + i + ".ogg");
+
+        AtomicReference<SoundConfig> published = new AtomicReference<>(new SoundConfig(volumesOf(soundIds, 0.5f)));
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] reads = new long[READERS];
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            int reader = r;
+            readers.add(new Thread(() -> {
+                await(start);
+                long lastVersion = Long.MIN_VALUE;
+                while (writing.get() && failure.get() == null) {
+                    SoundConfig snapshot = published.get();
+                    if (snapshot.getVersion() < lastVersion) {
+                        failure.compareAndSet(null, "version went back from " + lastVersion + " to " + snapshot.getVersion());
+                    }
+                    lastVersion = snapshot.getVersion();
+
+                    if (snapshot.size() != SOUND_COUNT) failure.compareAndSet(null, "saw " + snapshot.size() + " explicit volumes");
+                    float expected = snapshot.getVolume(soundIds.get(0));
+                    for (int i = 0; i < SOUND_COUNT; i++) {
+                        float byId = snapshot.getVolume(soundIds.get(i));
+                        float byIndex = snapshot.getVolumeAt(i);
+                        if (byId != expected || byIndex != expected) {
+                            failure.compareAndSet(null, "torn read at version " + snapshot.getVersion() + ": " + expected + " vs " + byId + "/" + byIndex);
+                            break;
+                        }
+                    }
+                    reads[reader]++;
+                }
+            }, "stress-reader-" + r));
+        }
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            int writer = w;
+            writers.add(new Thread(() -> {
+                await(start);
+                for (int k = 0; k < EDITS_PER_WRITER; k++) {
+                    Map<String, Float> changes = volumesOf(soundIds, volumeFor(writer * EDITS_PER_WRITER + k));
+                    while (true) {
+                        SoundConfig current = published.get();
+                        SoundConfig updated = current.withVolumes(changes);
+                        if (updated == current || published.compareAndSet(current, updated)) break;
+                    }
+                }
+            }, "stress-editor-" + w));
+        }
+        writers.add(new Thread(() -> {
+            await(start);
+            for (int k = 0; k < RELOADS; k++) {
+                SoundConfig reloaded = new SoundConfig(volumesOf(soundIds, volumeFor(k * 7)));
+                published.updateAndGet(previous -> reloaded.withVersion(previous.getVersion() + 1));
+            }
+        }, "stress-reloader"));
+
+        readers.forEach(Thread::start);
+        writers.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : writers) thread.join();
+        writing.set(false);
+        for (Thread thread : readers) thread.join();
+
+        assertNull(failure.get(), failure.get());
+        for (int r = 0; r < READERS; r++) assertTrue(reads[r] > 0, "reader " + r + " made no progress while writers ran");
+        assertEquals(SOUND_COUNT, published.get().size());
+    }
+
+    @Test
+    void editsReturnNewSnapshotsAndLeaveTheOldOneIntact() {
+        SoundConfig original = new SoundConfig(Map.of("test:a", 0.2f, "test:b", 0.4f));
+        SoundConfig edited = original.withVolume("test:a", 0.9f).withVolume("test:c", 0.3f);
+
+        assertEquals(0.2f, original.getVolume("test:a"), 0.0f);
+        assertEquals(1.0f, original.getVolume("test:c"), 0.0f);
+        assertEquals(2, original.size());
+        assertEquals(0.9f, edited.getVolume("test:a"), 0.0f);
+        assertEquals(0.3f, edited.getVolume("test:c"), 0.0f);
+        assertTrue(edited.getVersion() > original.getVersion());
+    }
+
+    private static Map<String, Float> volumesOf(List<String> soundIds, float volume) {
+        Map<String, Float> volumes = new HashMap<>(soundIds.size() * 2);
+        for (String soundId : soundIds) volumes.put(soundId, volume);
+        return volumes;
+    }
+
+    // Never 1.0, which would make every entry implicit
+    private static float volumeFor(int step) {
+        return (step % 90 + 5) / 100.0f;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try { latch.await(); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.neuxs.sound_controller.settings;
+
+import dev.neuxs.sound_controller.utils.SoundSlots;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Edits don't take the profile lock, so one built on the switched-to snapshot can publish before the table swap
+class VolumeTableTest {
+    private static final String EDITED_ID = "swap:sounds/edited.ogg";
+    private static final String OTHER_ID = "swap:sounds/other.ogg";
+    // The table is static and keeps the newest version it has seen, so every test starts above the last one's
+    private static long nextBaseVersion = 1_000;
+
+    @Test
+    void anEditPublishedBeforeTheSwapSurvivesIt() {
+        int edited = SoundSlots.slotOf(EDITED_ID);
+        int other = SoundSlots.slotOf(OTHER_ID);
+        SoundConfig outgoing = new SoundConfig(Map.of(EDITED_ID, 0.5f, OTHER_ID, 0.5f)).withVersion(baseVersion());
+        VolumeTable.bind(outgoing);
+
+        SoundConfig target = new SoundConfig(Map.of(EDITED_ID, 0.3f, OTHER_ID, 0.6f));
+        VolumeTable.Prepared prepared = VolumeTable.prepare(target);
+        SoundConfig incoming = target.withVersion(outgoing.getVersion() + 1);
+
+        // The writer's CAS lands on the incoming snapshot, and its table update on the outgoing table
+        SoundConfig edit = incoming.withVolume(EDITED_ID, 0.8f);
+        VolumeTable.update(edit, List.of(EDITED_ID));
+        VolumeTable.swap(incoming, prepared);
+
+        assertEquals(0.8f, VolumeTable.get(edited), 0.0001f);
+        assertEquals(0.6f, VolumeTable.get(other), 0.0001f);
+
+        // The switch's own config is older than what is bound now, so a late rebind doesn't roll the edit back
+        VolumeTable.bind(incoming);
+        assertEquals(0.8f, VolumeTable.get(edited), 0.0001f);
+    }
+
+    @Test
+    void aSwapWithoutARacingEditInstallsThePreparedTable() {
+        int edited = SoundSlots.slotOf(EDITED_ID);
+        SoundConfig outgoing = new SoundConfig(Map.of(EDITED_ID, 0.5f)).withVersion(baseVersion());
+        VolumeTable.bind(outgoing);
+
+        SoundConfig target = new SoundConfig(Map.of(EDITED_ID, 0.2f));
+        VolumeTable.Prepared prepared = VolumeTable.prepare(target);
+        VolumeTable.Prepared replaced = VolumeTable.swap(target.withVersion(outgoing.getVersion() + 1), prepared);
+
+        assertEquals(0.2f, VolumeTable.get(edited), 0.0001f);
+        assertTrue(replaced.isFor(outgoing));
+    }
+
+    private static synchronized long baseVersion() {
+        nextBaseVersion += 1_000;
+        return nextBaseVersion;
+    }
+}
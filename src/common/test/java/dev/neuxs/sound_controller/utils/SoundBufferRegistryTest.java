@@ -0,0 +1,97 @@
+package dev.neuxs.sound_controller.utils;
+
+import finalforeach.cosmicreach.util.Identifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// SoundBuffer's constructors need an OpenAL context, so the registry's map is driven with stub buffers that carry
+// a PCM array of their own. Loads and releases thousands of them the way the loadSound hook registers real ones.
+class SoundBufferRegistryTest {
+    private static final int BUFFERS_PER_ROUND = 1_000;
+    private static final int ROUNDS = 5;
+    private static final int PCM_BYTES = 16 * 1024;
+
+    @Test
+    @Timeout(120)
+    void unreachableBuffersAreReleased() throws InterruptedException {
+        WeakIdentityMap<StubBuffer, Identifier> entries = new WeakIdentityMap<>();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<StubBuffer> loaded = new ArrayList<>(BUFFERS_PER_ROUND);
+            List<WeakReference<StubBuffer>> released = new ArrayList<>(BUFFERS_PER_ROUND);
+            for (int i = 0; i < BUFFERS_PER_ROUND; i++) {
+                StubBuffer buffer = new StubBuffer();
+                entries.put(buffer, Identifier.of("leak_test:sounds/round_" + round + "/sound_" + i + ".ogg"));
+                loaded.add(buffer);
+                released.add(new WeakReference<>(buffer));
+            }
+            assertEquals(BUFFERS_PER_ROUND, entries.size());
+
+            loaded.clear();
+            assertEquals(0, awaitCollection(released), "the registry kept buffers alive after round " + round);
+            assertEquals(0, entries.size(), "entries for collected buffers after round " + round);
+        }
+
+        assertEquals((long) BUFFERS_PER_ROUND * ROUNDS, entries.getCollectedCount());
+    }
+
+    @Test
+    void reachableBuffersStayRegistered() throws InterruptedException {
+        WeakIdentityMap<StubBuffer, Identifier> entries = new WeakIdentityMap<>();
+        StubBuffer kept = new StubBuffer();
+        Identifier id = Identifier.of("leak_test:sounds/kept.ogg");
+        entries.put(kept, id);
+
+        List<WeakReference<StubBuffer>> released = new ArrayList<>();
+        released.add(new WeakReference<>(new StubBuffer()));
+        awaitCollection(released);
+
+        assertSame(id, entries.get(kept));
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    void disposedBuffersLeaveTheRegistry() {
+        WeakIdentityMap<StubBuffer, Identifier> entries = new WeakIdentityMap<>();
+        StubBuffer buffer = new StubBuffer();
+        Identifier id = Identifier.of("leak_test:sounds/disposed.ogg");
+        entries.put(buffer, id);
+
+        assertSame(id, entries.remove(buffer));
+        assertNull(entries.get(buffer));
+        assertEquals(0, entries.size());
+        assertTrue(entries.snapshot().isEmpty());
+    }
+
+    // Returns how many buffers are still reachable once the collector has had its chances
+    private static int awaitCollection(List<WeakReference<StubBuffer>> references) throws InterruptedException {
+        int alive = countAlive(references);
+        for (int attempt = 0; attempt < 100 && alive > 0; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            alive = countAlive(references);
+        }
+        return alive;
+    }
+
+    private static int countAlive(List<WeakReference<StubBuffer>> references) {
+        int alive = 0;
+        for (WeakReference<StubBuffer> reference : references) {
+            if (reference.get() != null) alive++;
+        }
+        return alive;
+    }
+
+    private static final class StubBuffer {
+        private final byte[] pcm = new byte[PCM_BYTES];
+    }
+}